@@ -0,0 +1,238 @@
+package com.cececandicorner.inventory;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * AsyncInventoryManager.java
+ * A non-blocking front end for an {@link InventoryManager}. Every method returns immediately with a
+ * CompletableFuture that completes with the same result the blocking method would return, so callers
+ * (the GUI, or a future server front end) can compose operations and keep many requests in flight.
+ * At most {@code maxConcurrency} operations run at once; the rest wait in a queue here, without
+ * holding a thread, so SQLite is never over-subscribed whatever executor is used.
+ */
+public class AsyncInventoryManager implements AutoCloseable {
+
+    /** One queued operation and the future its caller is waiting on. */
+    private static final class Job<T> {
+        private final Supplier<T> work;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        Job(Supplier<T> work) {
+            this.work = work;
+        }
+
+        void run() {
+            try {
+                future.complete(work.get());
+            } catch (Throwable e) { // Errors too, or the caller's future would never complete
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private final InventoryManager manager;
+    private final Executor executor;
+    private final DataAccessExecutor ownedExecutor; // Null when the caller supplied the executor
+    private final int maxConcurrency;
+    private final Queue<Job<?>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Creates an async manager with its own pool of {@code maxConcurrency} daemon threads.
+     * The pool is shut down by {@link #close()}.
+     * @param manager        The manager to delegate to.
+     * @param maxConcurrency The maximum number of operations running at once; keep it at or below the connection pool size.
+     */
+    public AsyncInventoryManager(InventoryManager manager, int maxConcurrency) {
+        this(manager, new DataAccessExecutor(maxConcurrency), maxConcurrency, true);
+    }
+
+    /**
+     * Creates an async manager that runs operations on the given executor.
+     * The executor is not shut down by {@link #close()}.
+     * @param manager        The manager to delegate to.
+     * @param executor       The executor to run operations on.
+     * @param maxConcurrency The maximum number of operations running at once; keep it at or below the connection pool size.
+     */
+    public AsyncInventoryManager(InventoryManager manager, Executor executor, int maxConcurrency) {
+        this(manager, executor, maxConcurrency, false);
+    }
+
+    private AsyncInventoryManager(InventoryManager manager, Executor executor, int maxConcurrency, boolean owned) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Maximum concurrency must be at least 1.");
+        }
+        this.manager = manager;
+        this.executor = executor;
+        this.ownedExecutor = owned ? (DataAccessExecutor) executor : null;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Adds a new bracelet. See {@link InventoryManager#addBracelet(String, String, String, String)}.
+     * @param id          The ID for the new bracelet.
+     * @param description The description for the new bracelet.
+     * @param quantityStr The quantity as a string.
+     * @param priceStr    The price as a string.
+     * @return A future completing with the outcome message.
+     */
+    public CompletableFuture<String> addBraceletAsync(String id, String description, String quantityStr, String priceStr) {
+        return submit(() -> manager.addBracelet(id, description, quantityStr, priceStr));
+    }
+
+    /**
+     * Removes a bracelet. See {@link InventoryManager#removeBracelet(String)}.
+     * @param itemId The ID of the bracelet to remove.
+     * @return A future completing with the outcome message.
+     */
+    public CompletableFuture<String> removeBraceletAsync(String itemId) {
+        return submit(() -> manager.removeBracelet(itemId));
+    }
+
+    /**
+     * Updates one field of a bracelet. See {@link InventoryManager#updateBracelet(String, String, String)}.
+     * @param itemId        The ID of the bracelet to update.
+     * @param fieldToUpdate "quantity", "price" or "status".
+     * @param newValue      The new value.
+     * @return A future completing with the outcome message.
+     */
+    public CompletableFuture<String> updateBraceletAsync(String itemId, String fieldToUpdate, String newValue) {
+        return submit(() -> manager.updateBracelet(itemId, fieldToUpdate, newValue));
+    }
+
+    /**
+     * Applies several changes to a bracelet at once. See {@link InventoryManager#updateBracelet(String, BraceletPatch)}.
+     * @param itemId The ID of the bracelet to update.
+     * @param patch  The changes to apply.
+     * @return A future completing with the outcome message and the changed rows.
+     */
+    public CompletableFuture<UpdateResult> updateBraceletAsync(String itemId, BraceletPatch patch) {
+        return submit(() -> manager.updateBracelet(itemId, patch));
+    }
+
+    /**
+     * Adds or subtracts stock. See {@link InventoryManager#adjustQuantity(String, int)}.
+     * @param itemId The ID of the bracelet to adjust.
+     * @param delta  The change in quantity.
+     * @return A future completing with the outcome message.
+     */
+    public CompletableFuture<String> adjustQuantityAsync(String itemId, int delta) {
+        return submit(() -> manager.adjustQuantity(itemId, delta));
+    }
+
+    /**
+     * Looks up a bracelet. See {@link InventoryManager#getBraceletById(String)}.
+     * @param itemId The ID of the bracelet to find.
+     * @return A future completing with the bracelet, or with null if it was not found.
+     */
+    public CompletableFuture<InventoryItem> getBraceletByIdAsync(String itemId) {
+        return submit(() -> manager.getBraceletById(itemId));
+    }
+
+    /**
+     * Reads the whole inventory. See {@link InventoryManager#getInventory()}.
+     * @return A future completing with every bracelet.
+     */
+    public CompletableFuture<List<InventoryItem>> getInventoryAsync() {
+        return submit(manager::getInventory);
+    }
+
+    /**
+     * Reads one page of the inventory. See {@link InventoryManager#getInventoryPage(String, int, DatabaseManager.SortKey)}.
+     * @param afterId  The ID of the last bracelet on the previous page, or null for the first page.
+     * @param pageSize The maximum number of bracelets to return.
+     * @param sortKey  The order to page through.
+     * @return A future completing with the page.
+     */
+    public CompletableFuture<List<InventoryItem>> getInventoryPageAsync(String afterId, int pageSize,
+                                                                       DatabaseManager.SortKey sortKey) {
+        return submit(() -> manager.getInventoryPage(afterId, pageSize, sortKey));
+    }
+
+    /**
+     * Builds a low stock report. See {@link InventoryManager#generateLowStockReport(String)}.
+     * @param thresholdStr The threshold quantity as a string.
+     * @return A future completing with the low stock bracelets, or with null if the threshold is invalid.
+     */
+    public CompletableFuture<List<InventoryItem>> generateLowStockReportAsync(String thresholdStr) {
+        return submit(() -> manager.generateLowStockReport(thresholdStr));
+    }
+
+    /**
+     * Retrieves the number of operations currently running.
+     * @return The number of running operations, at most the configured maximum concurrency.
+     */
+    public int getInFlightCount() {
+        return inFlight.get();
+    }
+
+    /**
+     * Retrieves the number of operations waiting for a free slot.
+     * @return The queue length.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Shuts down the executor if this manager created it, waiting briefly for queued work.
+     * An executor supplied by the caller is left running.
+     */
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.close();
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        Job<T> job = new Job<>(work);
+        pending.add(job);
+        dispatch();
+        return job.future;
+    }
+
+    /**
+     * Starts queued jobs until the concurrency limit is reached or the queue is empty.
+     * Called on every submit and whenever a job finishes, so no thread ever waits for a slot.
+     */
+    private void dispatch() {
+        while (true) {
+            int running = inFlight.get();
+            if (running >= maxConcurrency) {
+                return; // A finishing job will call dispatch again
+            }
+            if (!inFlight.compareAndSet(running, running + 1)) {
+                continue;
+            }
+            Job<?> job = pending.poll();
+            if (job == null) {
+                inFlight.decrementAndGet();
+                if (pending.isEmpty()) {
+                    return;
+                }
+                continue; // A job arrived after our poll; try again rather than strand it
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        job.run();
+                    } finally {
+                        inFlight.decrementAndGet();
+                        dispatch();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                inFlight.decrementAndGet();
+                job.future.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -14,6 +14,10 @@ import javafx.beans.property.SimpleStringProperty;
  * properties observable, which is essential for binding them to JavaFX UI controls
  * like {@code TableView}. When a property's value changes, the UI can be
  * automatically updated.
+ * Bracelet is the display model used by the GUI. The data and business layers work with the
+ * lightweight, immutable {@link InventoryItem}; a Bracelet is created from an item only when its
+ * row is shown in the {@code TableView}.
+ * @see InventoryItem
  * @see javafx.beans.property.SimpleStringProperty
  * @see javafx.beans.property.SimpleIntegerProperty
  * @see javafx.beans.property.SimpleDoubleProperty
@@ -50,6 +54,14 @@ public class Bracelet {
         this.status = new SimpleStringProperty(status);
     }
 
+    /**
+     * Constructor to create an observable view of an inventory item.
+     * @param item The item to display.
+     */
+    public Bracelet(InventoryItem item) {
+        this(item.getId(), item.getDescription(), item.getQuantity(), item.getPrice(), item.getStatus());
+    }
+
     // --- Getter Methods (returning raw values) ---
 
     /**
@@ -161,6 +173,25 @@ public class Bracelet {
         this.status.set(newStatus);
     }
 
+    /**
+     * Copies the changeable values (quantity, price and status) from an inventory item,
+     * so any bound table cells update in place.
+     * @param item The item holding the new values; must have the same ID as this bracelet.
+     */
+    public void update(InventoryItem item) {
+        setQuantity(item.getQuantity());
+        setPrice(item.getPrice());
+        setStatus(item.getStatus());
+    }
+
+    /**
+     * Creates an immutable snapshot of this bracelet's current values.
+     * @return The equivalent inventory item.
+     */
+    public InventoryItem toItem() {
+        return new InventoryItem(getId(), getDescription(), getQuantity(), getPrice(), getStatus());
+    }
+
     /**
      * Provides a string representation of the Bracelet object,
      * useful for printing details to the console or log.
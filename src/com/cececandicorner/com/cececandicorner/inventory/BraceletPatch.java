@@ -0,0 +1,93 @@
+package com.cececandicorner.inventory;
+
+/**
+ * BraceletPatch.java
+ * A set of changes to apply to one bracelet with {@link InventoryManager#updateBracelet(String, BraceletPatch)}.
+ * Each field holds the new value as the user typed it, or null to leave that field unchanged;
+ * the values are validated by the InventoryManager, the same way the single-field update does.
+ * A patch is immutable: start from {@code new BraceletPatch()} and add changes with the
+ * {@code with...} methods.
+ */
+public final class BraceletPatch {
+
+    /** The new quantity, or null to keep the current one. */
+    private final String quantity;
+
+    /** The new price, or null to keep the current one. */
+    private final String price;
+
+    /** The new stock status, or null to keep it (or to let a quantity change set it). */
+    private final String status;
+
+    /**
+     * Creates an empty patch that changes nothing.
+     */
+    public BraceletPatch() {
+        this(null, null, null);
+    }
+
+    private BraceletPatch(String quantity, String price, String status) {
+        this.quantity = quantity;
+        this.price = price;
+        this.status = status;
+    }
+
+    /**
+     * Creates a copy of this patch that also sets the quantity.
+     * @param newQuantity The new quantity, as entered.
+     * @return The modified copy.
+     */
+    public BraceletPatch withQuantity(String newQuantity) {
+        return new BraceletPatch(newQuantity, price, status);
+    }
+
+    /**
+     * Creates a copy of this patch that also sets the price.
+     * @param newPrice The new price, as entered.
+     * @return The modified copy.
+     */
+    public BraceletPatch withPrice(String newPrice) {
+        return new BraceletPatch(quantity, newPrice, status);
+    }
+
+    /**
+     * Creates a copy of this patch that also sets the stock status.
+     * @param newStatus The new status ("In Stock" or "Out of Stock").
+     * @return The modified copy.
+     */
+    public BraceletPatch withStatus(String newStatus) {
+        return new BraceletPatch(quantity, price, newStatus);
+    }
+
+    /**
+     * Retrieves the new quantity.
+     * @return The quantity as entered, or null if it is not being changed.
+     */
+    public String getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Retrieves the new price.
+     * @return The price as entered, or null if it is not being changed.
+     */
+    public String getPrice() {
+        return price;
+    }
+
+    /**
+     * Retrieves the new stock status.
+     * @return The status, or null if it is not being set explicitly.
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Checks whether this patch changes anything.
+     * @return true if no field is set.
+     */
+    public boolean isEmpty() {
+        return quantity == null && price == null && status == null;
+    }
+}
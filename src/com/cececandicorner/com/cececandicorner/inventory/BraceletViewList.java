@@ -0,0 +1,227 @@
+package com.cececandicorner.inventory;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * BraceletViewList.java
+ * The ObservableList behind the inventory TableView. It stores plain {@link InventoryItem}s and
+ * only creates the observable {@link Bracelet} for a row the first time the table asks for it,
+ * which the virtualized TableView only does for rows that are on screen. A catalog of thousands
+ * of rows therefore costs one small item per row, not five JavaFX property objects per row.
+ * Single-row edits are applied with {@link #patch(String, InventoryItem)}, which keeps the rest
+ * of the list (and the table's cells) untouched.
+ * A filter set with {@link #setFilter} hides the rows that do not pass it. The filter is applied here
+ * rather than through a FilteredList, because FilteredList and SortedList call get() on every row and
+ * would create a Bracelet for each one; here the test runs on the stored items and hidden rows stay
+ * plain items.
+ */
+final class BraceletViewList extends ObservableListBase<Bracelet> {
+
+    /** One table row: the stored values, plus the observable view once it has been displayed. */
+    private static final class Row {
+        private InventoryItem item;
+        private Bracelet view;
+
+        Row(InventoryItem item) {
+            this.item = item;
+        }
+    }
+
+    private final List<Row> rows; // All rows, in display order
+    private final Map<String, Row> rowsById;
+    private Predicate<? super InventoryItem> filter; // null when every row is shown
+    private List<Row> visible; // The rows passing the filter, in display order; the rows list itself when unfiltered
+
+    /**
+     * Creates a list holding the given items, in order. No Bracelet views are created yet.
+     * @param items The inventory items to display.
+     */
+    BraceletViewList(List<InventoryItem> items) {
+        rows = new ArrayList<>(items.size());
+        rowsById = new HashMap<>(items.size() * 2);
+        for (InventoryItem item : items) {
+            Row row = new Row(item);
+            rows.add(row);
+            rowsById.put(item.getId(), row);
+        }
+        visible = rows;
+    }
+
+    /**
+     * Returns the observable view of a row, creating it on first access.
+     * @param index The row index.
+     * @return The Bracelet for that row.
+     */
+    @Override
+    public Bracelet get(int index) {
+        return viewOf(visible.get(index));
+    }
+
+    @Override
+    public int size() {
+        return visible.size();
+    }
+
+    /**
+     * Shows only the rows whose stored item passes the filter, keeping their order.
+     * The filter is also applied to rows added or changed later by {@link #patch}.
+     * @param filter The test for rows to show, or null to show every row.
+     */
+    void setFilter(Predicate<? super InventoryItem> filter) {
+        List<Row> previous = visible;
+        this.filter = filter;
+        if (filter == null) {
+            visible = rows;
+        } else {
+            visible = new ArrayList<>();
+            for (Row row : rows) {
+                if (filter.test(row.item)) {
+                    visible.add(row);
+                }
+            }
+        }
+        beginChange();
+        nextReplace(0, visible.size(), viewsOf(new ArrayList<>(previous)));
+        endChange();
+    }
+
+    /**
+     * Brings one row in line with the database. A new ID is appended, a null item removes the row,
+     * and an existing row gets its values replaced; if that row is on screen, its Bracelet
+     * properties are updated in place so only its cells redraw. While a filter is set, a row
+     * that stops (or starts) passing it is hidden (or appended to the shown rows).
+     * @param id The ID of the bracelet that changed.
+     * @param current The item as it is now stored, or null if it no longer exists.
+     */
+    void patch(String id, InventoryItem current) {
+        Row row = rowsById.get(id);
+        if (current == null) {
+            if (row == null) {
+                return;
+            }
+            rowsById.remove(id);
+            int index = visible.indexOf(row);
+            rows.remove(row);
+            if (visible != rows && index >= 0) {
+                visible.remove(index);
+            }
+            if (index >= 0) {
+                beginChange();
+                nextRemove(index, viewOf(row));
+                endChange();
+            }
+        } else if (row == null) {
+            row = new Row(current);
+            rows.add(row);
+            rowsById.put(id, row);
+            boolean shown = visible == rows || filter.test(current);
+            if (shown && visible != rows) {
+                visible.add(row);
+            }
+            if (shown) {
+                beginChange();
+                nextAdd(visible.size() - 1, visible.size());
+                endChange();
+            }
+        } else {
+            row.item = current;
+            if (row.view != null) {
+                row.view.update(current);
+            }
+            if (visible != rows) {
+                int index = visible.indexOf(row);
+                boolean shown = filter.test(current);
+                if (shown && index < 0) {
+                    visible.add(row);
+                    beginChange();
+                    nextAdd(visible.size() - 1, visible.size());
+                    endChange();
+                } else if (!shown && index >= 0) {
+                    visible.remove(index);
+                    beginChange();
+                    nextRemove(index, viewOf(row));
+                    endChange();
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the shown contents with the given bracelets. The TableView's default sort policy calls
+     * this with the shown rows in their new order; rows keep their stored items and views.
+     * While a filter is set, the hidden rows are kept, after the shown ones.
+     * @param bracelets The bracelets, in their new order.
+     * @return true, as the list always changes.
+     */
+    @Override
+    public boolean setAll(Collection<? extends Bracelet> bracelets) {
+        List<Bracelet> removed = new ArrayList<>(this);
+        Map<String, Row> previous = new HashMap<>(rowsById);
+        List<Row> hidden = new ArrayList<>();
+        if (visible != rows) {
+            Set<Row> shown = Collections.newSetFromMap(new IdentityHashMap<>());
+            shown.addAll(visible);
+            for (Row row : rows) {
+                if (!shown.contains(row)) {
+                    hidden.add(row);
+                }
+            }
+        }
+        rows.clear();
+        rowsById.clear();
+        for (Bracelet bracelet : bracelets) {
+            Row row = previous.get(bracelet.getId());
+            if (row == null || row.view != bracelet) {
+                row = new Row(bracelet.toItem());
+                row.view = bracelet;
+            }
+            rows.add(row);
+            rowsById.put(bracelet.getId(), row);
+        }
+        if (visible != rows) {
+            visible = new ArrayList<>(rows);
+            for (Row row : hidden) {
+                if (rowsById.putIfAbsent(row.item.getId(), row) == null) {
+                    rows.add(row);
+                }
+            }
+        }
+        beginChange();
+        nextReplace(0, visible.size(), removed);
+        endChange();
+        return true;
+    }
+
+    // The removed rows of a change event, creating views only for the entries a listener reads
+    private static List<Bracelet> viewsOf(List<Row> removed) {
+        return new AbstractList<Bracelet>() {
+            @Override
+            public Bracelet get(int index) {
+                return viewOf(removed.get(index));
+            }
+
+            @Override
+            public int size() {
+                return removed.size();
+            }
+        };
+    }
+
+    private static Bracelet viewOf(Row row) {
+        if (row.view == null) {
+            row.view = new Bracelet(row.item);
+        }
+        return row.view;
+    }
+}
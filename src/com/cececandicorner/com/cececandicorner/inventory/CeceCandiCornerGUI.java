@@ -16,10 +16,11 @@
  */
 package com.cececandicorner.inventory; // IMPORTANT: Ensure this matches your package name
 
+import javafx.animation.PauseTransition;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -27,25 +28,53 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Base64; // Import for Base64 encoding
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
 
 
 /**
  * This class acts as the main view and controller, which translates user actions from buttons and dialogs
  * into method calls to the InventoryManager, which contains the core business logic. This class uses JavaFX
  * properties in the Bracelet class to enable automatic updates to the inventory table.
+ * All InventoryManager calls run on a {@link DataAccessExecutor} as JavaFX Tasks, so the window
+ * stays responsive during database work; a status bar shows progress and allows cancellation.
  */
 public class CeceCandiCornerGUI extends Application {
 
     private InventoryManager inventoryManager;
+    private DatabaseManager dbManager; // Owns the pooled database connections
+    private DataAccessExecutor dataExecutor; // Runs all database work off the JavaFX application thread
     private TableView<Bracelet> inventoryTable;
     private TextArea messageArea; // For displaying general messages and reports
-    private ObservableList<Bracelet> braceletData; // The ObservableList backing the TableView
+    private TableColumn<Bracelet, String> idColumn;
+    private TableColumn<Bracelet, Integer> quantityColumn;
+    private PagedBraceletList pagedData; // Backs the TableView when unfiltered; fetches pages of rows as they are shown
+    private DatabaseManager.SortKey pageOrder = DatabaseManager.SortKey.ID; // The order pagedData is read in
+    private BraceletViewList braceletData; // Every row, backing the TableView while filtered; null until first filtered
+    private TextField filterField; // Live filter above the table
+    private PauseTransition filterDebounce; // Applies the filter once typing pauses
+    private PrefixIndex filterIndex; // Words of every row, built with braceletData; only touched on the FX thread
+    private DataTask<LoadedInventory> filterIndexTask; // The latest index build, or null if none since the last reload
+    private int filterIndexGeneration; // Bumped by each build and reload, so a superseded build is ignored
+    private final Map<String, InventoryItem> patchedWhileIndexing = new LinkedHashMap<>(); // Edits the running build may miss
+    private List<String> filterTerms = List.of(); // The applied filter terms, empty when unfiltered
+    private PrefixIndex.Matches filterMatches; // Rows passing the applied filter, kept current as rows are patched
     private Stage primaryStage; // Keep a reference to the primary stage
 
     // NEW: Currency symbol for display
@@ -54,13 +83,38 @@ public class CeceCandiCornerGUI extends Application {
     // FIX: Declare currencySelector as a class field so it's accessible throughout the class
     private ComboBox<String> currencySelector;
 
+    // Status bar for background database work
+    private HBox taskStatusBar;
+    private ProgressBar taskProgressBar;
+    private Label taskStatusLabel;
+    private Button cancelTaskButton;
+    private final List<DataTask<?>> runningTasks = new ArrayList<>(); // Only touched on the FX thread
+
+    // Pushes live low-stock alerts into the message area; registered at startup, then with the last report threshold
+    private final LowStockListener lowStockAlerts = event -> Platform.runLater(() -> showLowStockAlert(event));
+
+    /** Number of worker threads for database tasks; SQLite serializes writers, so a couple is plenty. */
+    private static final int DATA_THREADS = 2;
+
+    /** Maximum number of matches listed by the search dialog. */
+    private static final int SEARCH_RESULT_LIMIT = 50;
+
+    /** How long typing must pause before the table filter is applied. */
+    private static final double FILTER_DEBOUNCE_MILLIS = 150;
+
+    /** Rows fetched together while scrolling the unfiltered table. */
+    private static final int TABLE_PAGE_SIZE = 200;
+
+    /** Pages of the unfiltered table kept in memory. */
+    private static final int TABLE_WINDOW_PAGES = 10;
+
+    /** Live low-stock alert threshold until the user runs a low stock report with another one. */
+    private static final int DEFAULT_LOW_STOCK_THRESHOLD = 5;
+
     @Override
     public void start(Stage primaryStage) {
         this.primaryStage = primaryStage; // Store reference to primary stage
 
-        // --- FIX: Initialize braceletData BEFORE any call to updateInventoryTable() ---
-        braceletData = FXCollections.observableArrayList();
-
         // Prompt user for database file path at startup
         String dbFilePath = promptForDatabasePath();
         if (dbFilePath == null) {
@@ -70,8 +124,13 @@ public class CeceCandiCornerGUI extends Application {
         }
 
         // Initialize DatabaseManager and then InventoryManager
-        DatabaseManager dbManager = new DatabaseManager(dbFilePath);
+        dbManager = new DatabaseManager(dbFilePath);
         inventoryManager = new InventoryManager(dbManager);
+        watchLowStock(DEFAULT_LOW_STOCK_THRESHOLD); // Alerts arrive from the first sale, not only after a report
+        dataExecutor = new DataAccessExecutor(DATA_THREADS);
+        // Empty until updateInventoryTable() counts the rows; pages are fetched on the data executor
+        pagedData = new PagedBraceletList(0, TABLE_PAGE_SIZE, TABLE_WINDOW_PAGES, pageOrder, pageSource(pageOrder),
+                dataExecutor, Platform::runLater);
 
         primaryStage.setTitle("Cece's Candi Corner Inventory Management System (Connected to: " + dbFilePath + ")");
 
@@ -81,10 +140,21 @@ public class CeceCandiCornerGUI extends Application {
         messageArea.setWrapText(true);
         messageArea.setPrefHeight(100); // Set a preferred height for the message area
 
+        // Status bar shown while database work runs in the background
+        taskProgressBar = new ProgressBar();
+        taskProgressBar.setPrefWidth(150);
+        taskStatusLabel = new Label();
+        cancelTaskButton = new Button("Cancel");
+        taskStatusBar = new HBox(10, taskProgressBar, taskStatusLabel, cancelTaskButton);
+        taskStatusBar.setAlignment(Pos.CENTER_LEFT);
+        taskStatusBar.setPadding(new Insets(5, 0, 5, 0));
+        taskStatusBar.setVisible(false);
+        taskStatusBar.setManaged(false); // Take no space while hidden
+
         // Inventory Table
         inventoryTable = new TableView<>();
         inventoryTable.setPlaceholder(new Label("No bracelets to display. Connect to database and display."));
-        inventoryTable.setItems(braceletData); // Link the TableView to the ObservableList
+        inventoryTable.setItems(pagedData); // Link the TableView to the ObservableList
 
         // --- IMPORTANT: Using property() methods for PropertyValueFactory ---
         // This ensures the TableView observes the observable properties in Bracelet.java
@@ -123,6 +193,18 @@ public class CeceCandiCornerGUI extends Application {
 
         inventoryTable.getColumns().addAll(idCol, descCol, quantityCol, priceCol, statusCol);
         inventoryTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY); // Make columns fill width
+        idColumn = idCol;
+        quantityColumn = quantityCol;
+        inventoryTable.setSortPolicy(table -> sortTable());
+
+        // Live filter: matched in memory against the prefix index, never against the database
+        filterField = new TextField();
+        filterField.setPromptText("Filter by ID or description...");
+        filterDebounce = new PauseTransition(Duration.millis(FILTER_DEBOUNCE_MILLIS));
+        filterDebounce.setOnFinished(e -> applyFilter());
+        filterField.textProperty().addListener((observable, oldText, newText) -> filterDebounce.playFromStart());
+        VBox tableLayout = new VBox(5, filterField, inventoryTable);
+        VBox.setVgrow(inventoryTable, Priority.ALWAYS);
 
         // --- Buttons for Main Operations ---
         // Removed "Load Data from File"
@@ -146,6 +228,14 @@ public class CeceCandiCornerGUI extends Application {
         lowStockReportButton.setMaxWidth(Double.MAX_VALUE);
         lowStockReportButton.setOnAction(e -> showLowStockReportDialog());
 
+        Button searchButton = new Button("Search Bracelets");
+        searchButton.setMaxWidth(Double.MAX_VALUE);
+        searchButton.setOnAction(e -> showSearchDialog());
+
+        Button exportButton = new Button("Export Inventory");
+        exportButton.setMaxWidth(Double.MAX_VALUE);
+        exportButton.setOnAction(e -> showExportDialog());
+
         Button exitButton = new Button("Exit");
         exitButton.setMaxWidth(Double.MAX_VALUE);
         exitButton.setOnAction(e -> Platform.exit()); // Exit the application
@@ -163,14 +253,14 @@ public class CeceCandiCornerGUI extends Application {
                 case "¥ (JPY)": currentCurrencySymbol = "¥"; break;
                 default: currentCurrencySymbol = "$"; // Fallback
             }
-            updateInventoryTable(); // Refresh table to show new currency symbol
+            inventoryTable.refresh(); // Re-render price cells with the new currency symbol; no reload needed
             // If update dialog is open, its price label won't update automatically.
             // For this scope, we'll assume the dialog is closed or user re-opens it.
         });
 
 
         VBox buttonLayout = new VBox(10, displayAllButton, addBraceletButton,
-                removeBraceletButton, updateBraceletButton, lowStockReportButton, currencySelector, exitButton); // Added currencySelector
+                removeBraceletButton, updateBraceletButton, lowStockReportButton, searchButton, exportButton, currencySelector, exitButton); // Added currencySelector
         buttonLayout.setPadding(new Insets(10));
         buttonLayout.setAlignment(Pos.TOP_CENTER);
 
@@ -178,10 +268,10 @@ public class CeceCandiCornerGUI extends Application {
         BorderPane root = new BorderPane();
         root.setPadding(new Insets(10));
         root.setLeft(buttonLayout); // Buttons on the left
-        root.setCenter(inventoryTable); // Table in the center
-        root.setBottom(messageArea); // Message area at the bottom
+        root.setCenter(tableLayout); // Filter and table in the center
+        root.setBottom(new VBox(5, taskStatusBar, messageArea)); // Task status and message area at the bottom
 
-        // Initial display of inventory (now braceletData is initialized)
+        // Initial display of inventory (now pagedData is initialized)
         updateInventoryTable(); // Call to populate table from DB on startup
 
         Scene scene = new Scene(root, 900, 600); // Increased width for better layout
@@ -269,6 +359,23 @@ public class CeceCandiCornerGUI extends Application {
         primaryStage.show();
     }
 
+    /**
+     * Called by JavaFX when the application exits. Lets queued database work finish,
+     * saves anything the InventoryManager still has queued, then releases the pooled database connections.
+     */
+    @Override
+    public void stop() {
+        if (dataExecutor != null) {
+            dataExecutor.close();
+        }
+        if (inventoryManager != null) {
+            inventoryManager.close();
+        }
+        if (dbManager != null) {
+            dbManager.close();
+        }
+    }
+
     /**
      * Prompts the user to select or enter the path to the SQLite database file.
      * @return The absolute path to the database file, or null if cancelled/invalid.
@@ -297,22 +404,296 @@ public class CeceCandiCornerGUI extends Application {
      * Handles displaying all bracelets currently in the inventory.
      */
     private void handleDisplayAll() {
-        updateInventoryTable();
-        if (inventoryManager.getInventory().isEmpty()) {
-            showMessage("Inventory is empty. No data to display.");
-        } else {
-            showMessage("Displaying all bracelets in inventory.");
-        }
+        updateInventoryTable(size -> {
+            if (size == 0) {
+                showMessage("Inventory is empty. No data to display.");
+            } else {
+                showMessage("Displaying all bracelets in inventory.");
+            }
+        });
     }
 
     /**
      * Updates the TableView with the current inventory data from InventoryManager.
-     * This method now uses setAll() to replace all elements in the ObservableList,
-     * which can be more efficient and reliable for triggering UI updates.
+     * Only the rows are counted here; the table then fetches the pages it shows, so the first screen
+     * appears after one count and one page read however large the catalog is.
+     * This is a full reload, used at startup and when the user explicitly asks to display all
+     * bracelets; individual edits patch single rows instead.
      */
     private void updateInventoryTable() {
-        braceletData.setAll(inventoryManager.getInventory()); // Use setAll to replace all elements
-        inventoryTable.refresh(); // Explicitly tell the table to refresh its view
+        updateInventoryTable(size -> { });
+    }
+
+    /**
+     * Counts the inventory in the background, then restarts the paged table contents.
+     * The filter index is dropped and rebuilt from the reloaded rows when the filter is next used.
+     * @param onLoaded Called on the FX thread with the number of bracelets after the table is updated.
+     */
+    private void updateInventoryTable(IntConsumer onLoaded) {
+        runInBackground("Loading inventory", task -> inventoryManager.getInventorySize(), size -> {
+            if (size < 0) {
+                showMessage("Error: Could not read the inventory from the database.");
+                return;
+            }
+            pagedData.reload(pageOrder, pageSource(pageOrder), size);
+            filterIndexTask = null;
+            filterIndexGeneration++; // A build still running is ignored when it finishes
+            filterIndex = null;
+            braceletData = null;
+            patchedWhileIndexing.clear();
+            applyFilter(); // Keep the current filter on the reloaded rows
+            onLoaded.accept(size);
+        });
+    }
+
+    /**
+     * Creates the page loader for the unfiltered table. A page that follows a loaded page continues
+     * from that page's last ID (keyset pagination); a page reached by jumping, such as by dragging the
+     * scrollbar, is read by its row offset.
+     * @param order The order of the rows.
+     * @return The page loader.
+     */
+    private PagedBraceletList.PageSource pageSource(DatabaseManager.SortKey order) {
+        return (offset, afterId, pageSize) -> {
+            if (afterId != null) {
+                List<InventoryItem> page = inventoryManager.getInventoryPage(afterId, pageSize, order);
+                if (!page.isEmpty()) {
+                    return page;
+                }
+            }
+            return inventoryManager.getInventoryPageAt(offset, pageSize, order);
+        };
+    }
+
+    /**
+     * Sorts the table when the user clicks a column header. The filtered rows are all in memory and
+     * sort as usual; the paged rows are re-read from the database in the new order, which is only
+     * possible for orders with an index: ascending ID or ascending quantity.
+     * @return true if the table was sorted, false to keep the previous order.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean sortTable() {
+        if (inventoryTable.getItems() != pagedData) {
+            return TableView.DEFAULT_SORT_POLICY.call(inventoryTable);
+        }
+        DatabaseManager.SortKey order = requestedPageOrder();
+        if (order == null) {
+            showMessage("The full inventory can be sorted by ascending ID or quantity. Type a filter to sort the matching bracelets by any column.");
+            return false;
+        }
+        if (order != pageOrder) {
+            pageOrder = order;
+            pagedData.reload(order, pageSource(order), pagedData.size());
+        }
+        return true;
+    }
+
+    /**
+     * Maps the table's sort columns to a database order.
+     * @return The order, or null if the paged rows cannot be read in the requested order.
+     */
+    private DatabaseManager.SortKey requestedPageOrder() {
+        if (inventoryTable.getSortOrder().isEmpty()) {
+            return DatabaseManager.SortKey.ID;
+        }
+        TableColumn<Bracelet, ?> column = inventoryTable.getSortOrder().get(0);
+        if (column.getSortType() != TableColumn.SortType.ASCENDING) {
+            return null;
+        }
+        if (column == idColumn) {
+            return DatabaseManager.SortKey.ID;
+        }
+        return column == quantityColumn ? DatabaseManager.SortKey.QUANTITY : null;
+    }
+
+    /**
+     * Runs a mutation in the background, re-reads the affected row in the same task,
+     * and then patches just that row in the table. An existing bracelet has its values replaced;
+     * if it is on screen, its observable properties are updated in place so only its cells redraw.
+     * Adding or removing a bracelet shifts the paged rows, so those pages are fetched again.
+     * @param description A short description shown in the status bar.
+     * @param id The ID of the bracelet being changed.
+     * @param mutation The InventoryManager call to make; its message is shown to the user.
+     */
+    private void mutateAndPatch(String description, String id, Callable<String> mutation) {
+        runInBackground(description, task -> {
+            InventoryItem previous = inventoryManager.getBraceletById(id); // Tells adds, removes and moves apart without a count
+            String message = mutation.call();
+            return new RowChange(message, previous, inventoryManager.getBraceletById(id));
+        }, change -> {
+            showMessage(change.message());
+            patchRow(id, change.previous(), change.row());
+        });
+    }
+
+    /**
+     * Applies a bracelet patch in the background and patches the table from the rows the update
+     * returns, so an edit costs one database call and no extra lookups.
+     * @param id The ID of the bracelet being updated.
+     * @param patch The changes to apply.
+     */
+    private void updateAndPatch(String id, BraceletPatch patch) {
+        runInBackground("Updating bracelet " + id, task -> inventoryManager.updateBracelet(id, patch), result -> {
+            showMessage(result.message());
+            if (result.isUpdated()) {
+                patchRow(id, result.previous(), result.updated());
+            }
+        });
+    }
+
+    /**
+     * Patches one changed bracelet into the paged rows and, if loaded, the filtered rows.
+     * Must be called on the FX thread.
+     * @param id The ID of the bracelet that changed.
+     * @param previous The bracelet as it was stored before the change, or null if it did not exist.
+     * @param current The bracelet as it is stored now, or null if it no longer exists.
+     */
+    private void patchRow(String id, InventoryItem previous, InventoryItem current) {
+        pagedData.patch(id, previous, current);
+        if (braceletData != null) {
+            filterIndex.update(id, current);
+            if (filterMatches != null && current != null) { // Decide whether the patched row passes the filter
+                filterMatches.set(id, PrefixIndex.matches(current, filterTerms));
+            }
+            braceletData.patch(id, current); // Add, remove or update just this row
+        } else if (filterIndexTask != null) {
+            patchedWhileIndexing.put(id, current);
+        }
+    }
+
+    /**
+     * Filters the table to the rows matching the filter field: every word typed must start one of
+     * the words of the bracelet's ID or description. The matches come from the in-memory prefix
+     * index, so this takes milliseconds even for large catalogs and never queries the database.
+     * The first filter after a reload reads every row once to build the index; an empty filter
+     * switches the table back to the paged rows.
+     * Called when typing pauses and after a reload.
+     */
+    private void applyFilter() {
+        filterTerms = PrefixIndex.terms(filterField.getText());
+        if (filterTerms.isEmpty()) {
+            filterMatches = null;
+            if (inventoryTable.getItems() != pagedData) {
+                inventoryTable.setItems(pagedData);
+                if (requestedPageOrder() == null) {
+                    inventoryTable.getSortOrder().clear(); // Back to ID order; the paged rows cannot be sorted this way
+                } else {
+                    inventoryTable.sort();
+                }
+            }
+            return;
+        }
+        if (filterIndex == null) {
+            buildFilterIndex(); // Applies the filter when the index is ready
+            return;
+        }
+        PrefixIndex.Matches matches = filterIndex.search(filterTerms);
+        filterMatches = matches;
+        braceletData.setFilter(item -> matches.contains(item.getId()));
+        if (inventoryTable.getItems() != braceletData) {
+            inventoryTable.setItems(braceletData);
+        }
+        if (!inventoryTable.getSortOrder().isEmpty()) {
+            inventoryTable.sort(); // Rows hidden while the table was re-sorted are not in order yet
+        }
+    }
+
+    /**
+     * Reads every row in the background into the in-memory list and prefix index used for filtering,
+     * then applies the filter. Does nothing if a build is already running.
+     * The load streams rows so it can report how far it got and stop early if cancelled.
+     */
+    private void buildFilterIndex() {
+        if (filterIndexTask != null && !filterIndexTask.isDone()) {
+            return;
+        }
+        patchedWhileIndexing.clear(); // The new read sees every edit saved so far
+        int generation = ++filterIndexGeneration;
+        filterIndexTask = runInBackground("Indexing inventory for filtering", task -> {
+            List<InventoryItem> rows = new ArrayList<>();
+            PrefixIndex index = new PrefixIndex(); // Built here so the FX thread only swaps it in
+            try (Stream<InventoryItem> stream = inventoryManager.streamInventory()) {
+                Iterator<InventoryItem> iterator = stream.iterator();
+                while (iterator.hasNext() && !task.isCancelled()) {
+                    InventoryItem row = iterator.next();
+                    rows.add(row);
+                    index.add(row);
+                    if (rows.size() % 1000 == 0) {
+                        task.reportMessage(String.format("Indexing inventory (%d bracelets)...", rows.size()));
+                    }
+                }
+            }
+            return new LoadedInventory(rows, index);
+        }, loaded -> {
+            if (generation != filterIndexGeneration) {
+                return; // The inventory was reloaded while this build ran
+            }
+            braceletData = new BraceletViewList(loaded.rows());
+            filterIndex = loaded.index();
+            patchedWhileIndexing.forEach((id, row) -> { // Edits saved after the read passed their rows
+                filterIndex.update(id, row);
+                braceletData.patch(id, row);
+            });
+            patchedWhileIndexing.clear();
+            applyFilter();
+        });
+    }
+
+    /**
+     * Runs database work on the data-access executor and hands the result back on the FX thread.
+     * While the task runs, the status bar shows its progress and offers a Cancel button.
+     * @param description A short description shown in the status bar and in error messages.
+     * @param work The work to run off the FX thread.
+     * @param onSuccess Called on the FX thread with the work's result.
+     * @param <T> The type of result produced by the work.
+     * @return The submitted task.
+     */
+    private <T> DataTask<T> runInBackground(String description, BackgroundWork<T> work, Consumer<T> onSuccess) {
+        DataTask<T> task = new DataTask<>(description, work);
+        task.setOnSucceeded(e -> {
+            taskFinished(task);
+            onSuccess.accept(task.getValue());
+        });
+        task.setOnFailed(e -> {
+            taskFinished(task);
+            showMessage(String.format("Error: %s failed: %s", description, task.getException()));
+        });
+        task.setOnCancelled(e -> {
+            taskFinished(task);
+            showMessage(String.format("Cancelled: %s", description));
+        });
+        runningTasks.add(task);
+        showTaskStatus(task);
+        dataExecutor.execute(task);
+        return task;
+    }
+
+    /**
+     * Removes a finished task from the status bar, switching to the next running task or hiding the bar.
+     * @param task The task that has finished.
+     */
+    private void taskFinished(DataTask<?> task) {
+        runningTasks.remove(task);
+        if (runningTasks.isEmpty()) {
+            taskProgressBar.progressProperty().unbind();
+            taskStatusLabel.textProperty().unbind();
+            taskStatusBar.setVisible(false);
+            taskStatusBar.setManaged(false);
+        } else {
+            showTaskStatus(runningTasks.get(runningTasks.size() - 1));
+        }
+    }
+
+    /**
+     * Binds the status bar to a running task.
+     * @param task The task to display.
+     */
+    private void showTaskStatus(DataTask<?> task) {
+        taskProgressBar.progressProperty().bind(task.progressProperty());
+        taskStatusLabel.textProperty().bind(task.messageProperty());
+        cancelTaskButton.setOnAction(e -> task.cancel());
+        taskStatusBar.setVisible(true);
+        taskStatusBar.setManaged(true);
     }
 
     /**
@@ -389,9 +770,8 @@ public class CeceCandiCornerGUI extends Application {
                 String quantityStr = quantityField.getText().trim();
                 String priceStr = priceField.getText().trim();
 
-                String result = inventoryManager.addBracelet(id, description, quantityStr, priceStr);
-                showMessage(result);
-                updateInventoryTable(); // Refresh table
+                mutateAndPatch("Adding bracelet " + id, id,
+                        () -> inventoryManager.addBracelet(id, description, quantityStr, priceStr));
             }
             return null;
         });
@@ -418,9 +798,8 @@ public class CeceCandiCornerGUI extends Application {
 
             Optional<ButtonType> confirmationResult = confirmationAlert.showAndWait();
             if (confirmationResult.isPresent() && confirmationResult.get() == ButtonType.OK) {
-                String message = inventoryManager.removeBracelet(itemId.trim());
-                showMessage(message);
-                updateInventoryTable(); // Refresh table
+                String id = itemId.trim();
+                mutateAndPatch("Removing bracelet " + id, id, () -> inventoryManager.removeBracelet(id));
             } else {
                 showMessage("Deletion of bracelet " + itemId + " cancelled.");
             }
@@ -441,128 +820,182 @@ public class CeceCandiCornerGUI extends Application {
         Optional<String> idResult = idDialog.showAndWait();
         idResult.ifPresent(itemId -> {
             String id = itemId.trim();
-            Bracelet braceletToUpdate = inventoryManager.getBraceletById(id);
+            runInBackground("Looking up bracelet " + id, task -> inventoryManager.getBraceletById(id), braceletToUpdate -> {
+                if (braceletToUpdate == null) {
+                    showMessage(String.format("Error: Bracelet with ID '%s' not found.", id));
+                    return;
+                }
+                showUpdateDetailsDialog(id, braceletToUpdate);
+            });
+        });
+    }
 
-            if (braceletToUpdate == null) {
-                showMessage(String.format("Error: Bracelet with ID '%s' not found.", id));
-                return;
-            }
+    /**
+     * Shows the dialog for choosing new quantity, price and status values for a bracelet.
+     * Any confirmations happen here on the FX thread; the chosen changes are then collected into
+     * one {@link BraceletPatch} and applied atomically by a single background task.
+     * @param id The ID of the bracelet being updated.
+     * @param braceletToUpdate The bracelet as it was when the dialog opened.
+     */
+    private void showUpdateDetailsDialog(String id, InventoryItem braceletToUpdate) {
+        // If bracelet found, show update options
+        Dialog<ButtonType> updateDialog = new Dialog<>();
+        updateDialog.setTitle("Update Bracelet Details");
+        updateDialog.setHeaderText(String.format("Updating Bracelet: %s\nCurrent Details: %s\nSelect field(s) to update:", braceletToUpdate.getDescription(), braceletToUpdate.toString()));
 
-            // If bracelet found, show update options
-            Dialog<ButtonType> updateDialog = new Dialog<>();
-            updateDialog.setTitle("Update Bracelet Details");
-            updateDialog.setHeaderText(String.format("Updating Bracelet: %s\nCurrent Details: %s\nSelect field(s) to update:", braceletToUpdate.getDescription(), braceletToUpdate.toString()));
-
-            // FIX: Corrected ButtonType usage. Creating ButtonType explicitly with text and ButtonBar.ButtonData.OK_DONE
-            ButtonType updateButtonType = new ButtonType("OK", ButtonBar.ButtonData.OK_DONE); // Corrected line
-            updateDialog.getDialogPane().getButtonTypes().addAll(updateButtonType, ButtonType.CANCEL);
-
-            GridPane grid = new GridPane();
-            grid.setHgap(10);
-            grid.setVgap(10);
-            grid.setPadding(new Insets(20, 150, 10, 10));
-
-            Label currentQuantityLabel = new Label("Current Quantity: " + braceletToUpdate.getQuantity());
-            TextField newQuantityField = new TextField();
-            newQuantityField.setPromptText("New Quantity");
-
-            // NEW: Use formatPrice helper for current price display
-            Label currentPriceLabel = new Label("Current Price: " + formatPrice(braceletToUpdate.getPrice()));
-            TextField newPriceField = new TextField();
-            newPriceField.setPromptText("New Price");
-
-            Label currentStatusLabel = new Label("Current Status: " + braceletToUpdate.getStatus());
-            ComboBox<String> newStatusComboBox = new ComboBox<>(FXCollections.observableArrayList("In Stock", "Out of Stock"));
-            newStatusComboBox.setValue(braceletToUpdate.getStatus()); // Set current status as default
-
-            grid.add(new Label("Quantity:"), 0, 0);
-            grid.add(currentQuantityLabel, 1, 0);
-            grid.add(newQuantityField, 2, 0);
-
-            grid.add(new Label("Price:"), 0, 1);
-            grid.add(currentPriceLabel, 1, 1);
-            grid.add(newPriceField, 2, 1);
-
-            grid.add(new Label("Status:"), 0, 2);
-            grid.add(currentStatusLabel, 1, 2);
-            grid.add(newStatusComboBox, 2, 2);
-
-            updateDialog.getDialogPane().setContent(grid);
-
-            updateDialog.setResultConverter(dialogButton -> {
-                if (dialogButton == updateButtonType) {
-                    String message = "";
-                    boolean quantityUpdated = false; // Flag to track if quantity was updated
-                    boolean statusUpdatedManually = false; // Flag to track if status was called in InventoryManager
-
-                    // Store original quantity and status for comparison
-                    int originalQuantity = braceletToUpdate.getQuantity();
-                    String originalStatus = braceletToUpdate.getStatus();
-
-                    // 1. Handle Quantity Update FIRST
-                    String newQuantityStr = newQuantityField.getText().trim();
-                    if (!newQuantityStr.isEmpty()) {
-                        // Attempt to update quantity, this will also trigger auto-status change if applicable
-                        message = inventoryManager.updateBracelet(id, "quantity", newQuantityStr);
-                        showMessage(message);
-                        quantityUpdated = true;
-                    }
+        // FIX: Corrected ButtonType usage. Creating ButtonType explicitly with text and ButtonBar.ButtonData.OK_DONE
+        ButtonType updateButtonType = new ButtonType("OK", ButtonBar.ButtonData.OK_DONE); // Corrected line
+        updateDialog.getDialogPane().getButtonTypes().addAll(updateButtonType, ButtonType.CANCEL);
 
-                    // 2. Handle Manual Status Update (with confirmation and quantity override)
-                    String selectedStatus = newStatusComboBox.getValue();
-                    // Check if a status was explicitly selected AND it's different from the bracelet's *current* status
-                    // after potential quantity update.
-                    // IMPORTANT: We only allow manual status update if quantity didn't already force it.
-                    if (selectedStatus != null && !selectedStatus.equalsIgnoreCase(braceletToUpdate.getStatus())) {
-                        // Special handling if user tries to manually set to "Out of Stock" when quantity is > 0
-                        if (selectedStatus.equalsIgnoreCase("Out of Stock") && braceletToUpdate.getQuantity() > 0) {
-                            Alert confirmationAlert = new Alert(Alert.AlertType.CONFIRMATION);
-                            confirmationAlert.setTitle("Confirm Status Change");
-                            confirmationAlert.setHeaderText("Changing status to 'Out of Stock' will set quantity to 0.");
-                            confirmationAlert.setContentText("Are you sure you want to proceed?");
-
-                            Optional<ButtonType> confirmationResult = confirmationAlert.showAndWait();
-                            if (confirmationResult.isPresent() && confirmationResult.get() == ButtonType.OK) {
-                                // User confirmed: Set quantity to 0 first, then set status
-                                String qtyUpdateResult = inventoryManager.updateBracelet(id, "quantity", "0");
-                                showMessage(qtyUpdateResult); // Show message for quantity update
-                                message = inventoryManager.updateBracelet(id, "status", "Out of Stock");
-                                showMessage(message); // Show message for status update
-                                statusUpdatedManually = true;
-                            } else {
-                                showMessage("Status change to 'Out of Stock' cancelled. Status remains: " + braceletToUpdate.getStatus());
-                                // Do not proceed with status update
-                            }
-                        }
-                        // Handle manual status change that contradicts quantity (already handled by InventoryManager, but let's be explicit here for GUI feedback)
-                        else if ((braceletToUpdate.getQuantity() == 0 && selectedStatus.equalsIgnoreCase("In Stock")) ||
-                                (braceletToUpdate.getQuantity() > 0 && selectedStatus.equalsIgnoreCase("Out of Stock") && !selectedStatus.equalsIgnoreCase(originalStatus))) { // If quantity is 0 and trying to set In Stock, or quantity > 0 and trying to set Out of Stock (and it wasn't already)
-                            showMessage("Warning: Status cannot be manually set to contradict current quantity. Status remains: " + braceletToUpdate.getStatus());
-                            // Do NOT update status if it contradicts the quantity rule
-                        }
-                        else {
-                            message = inventoryManager.updateBracelet(id, "status", selectedStatus);
-                            showMessage(message);
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new Insets(20, 150, 10, 10));
+
+        Label currentQuantityLabel = new Label("Current Quantity: " + braceletToUpdate.getQuantity());
+        TextField newQuantityField = new TextField();
+        newQuantityField.setPromptText("New Quantity");
+
+        // NEW: Use formatPrice helper for current price display
+        Label currentPriceLabel = new Label("Current Price: " + formatPrice(braceletToUpdate.getPrice()));
+        TextField newPriceField = new TextField();
+        newPriceField.setPromptText("New Price");
+
+        Label currentStatusLabel = new Label("Current Status: " + braceletToUpdate.getStatus());
+        ComboBox<String> newStatusComboBox = new ComboBox<>(FXCollections.observableArrayList("In Stock", "Out of Stock"));
+        newStatusComboBox.setValue(braceletToUpdate.getStatus()); // Set current status as default
+
+        grid.add(new Label("Quantity:"), 0, 0);
+        grid.add(currentQuantityLabel, 1, 0);
+        grid.add(newQuantityField, 2, 0);
+
+        grid.add(new Label("Price:"), 0, 1);
+        grid.add(currentPriceLabel, 1, 1);
+        grid.add(newPriceField, 2, 1);
+
+        grid.add(new Label("Status:"), 0, 2);
+        grid.add(currentStatusLabel, 1, 2);
+        grid.add(newStatusComboBox, 2, 2);
+
+        updateDialog.getDialogPane().setContent(grid);
+
+        updateDialog.setResultConverter(dialogButton -> {
+            if (dialogButton == updateButtonType) {
+                // Changes are collected into one patch and applied in a single statement off the FX thread
+                BraceletPatch patch = new BraceletPatch();
+                boolean quantityUpdated = false; // Flag to track if quantity was updated
+                boolean statusUpdatedManually = false; // Flag to track if status was called in InventoryManager
+
+                // Store original quantity and status for comparison
+                int originalQuantity = braceletToUpdate.getQuantity();
+                String originalStatus = braceletToUpdate.getStatus();
+
+                // 1. Handle Quantity Update FIRST
+                String newQuantityStr = newQuantityField.getText().trim();
+                if (!newQuantityStr.isEmpty()) {
+                    // Attempt to update quantity, this will also trigger auto-status change if applicable
+                    patch = patch.withQuantity(newQuantityStr);
+                    quantityUpdated = true;
+                }
+
+                // 2. Handle Manual Status Update (with confirmation and quantity override)
+                String selectedStatus = newStatusComboBox.getValue();
+                // Check if a status was explicitly selected AND it's different from the bracelet's *current* status
+                // after potential quantity update.
+                // IMPORTANT: We only allow manual status update if quantity didn't already force it.
+                if (selectedStatus != null && !selectedStatus.equalsIgnoreCase(braceletToUpdate.getStatus())) {
+                    // Special handling if user tries to manually set to "Out of Stock" when quantity is > 0
+                    if (selectedStatus.equalsIgnoreCase("Out of Stock") && braceletToUpdate.getQuantity() > 0) {
+                        Alert confirmationAlert = new Alert(Alert.AlertType.CONFIRMATION);
+                        confirmationAlert.setTitle("Confirm Status Change");
+                        confirmationAlert.setHeaderText("Changing status to 'Out of Stock' will set quantity to 0.");
+                        confirmationAlert.setContentText("Are you sure you want to proceed?");
+
+                        Optional<ButtonType> confirmationResult = confirmationAlert.showAndWait();
+                        if (confirmationResult.isPresent() && confirmationResult.get() == ButtonType.OK) {
+                            // User confirmed: Set quantity to 0 together with the status
+                            patch = patch.withQuantity("0").withStatus("Out of Stock");
                             statusUpdatedManually = true;
+                        } else {
+                            showMessage("Status change to 'Out of Stock' cancelled. Status remains: " + braceletToUpdate.getStatus());
+                            // Do not proceed with status update
                         }
                     }
-
-                    // 3. Handle Price Update (after quantity and status to ensure latest state)
-                    String newPriceStr = newPriceField.getText().trim();
-                    if (!newPriceStr.isEmpty()) {
-                        message = inventoryManager.updateBracelet(id, "price", newPriceStr);
-                        showMessage(message);
+                    // Handle manual status change that contradicts quantity (already handled by InventoryManager, but let's be explicit here for GUI feedback)
+                    else if ((braceletToUpdate.getQuantity() == 0 && selectedStatus.equalsIgnoreCase("In Stock")) ||
+                            (braceletToUpdate.getQuantity() > 0 && selectedStatus.equalsIgnoreCase("Out of Stock") && !selectedStatus.equalsIgnoreCase(originalStatus))) { // If quantity is 0 and trying to set In Stock, or quantity > 0 and trying to set Out of Stock (and it wasn't already)
+                        showMessage("Warning: Status cannot be manually set to contradict current quantity. Status remains: " + braceletToUpdate.getStatus());
+                        // Do NOT update status if it contradicts the quantity rule
                     }
-
-                    // Final check to see if any actual changes were made by user input
-                    if (!quantityUpdated && !statusUpdatedManually && newPriceStr.isEmpty()) {
-                        showMessage("No changes made to bracelet " + id + ".");
+                    else {
+                        patch = patch.withStatus(selectedStatus);
+                        statusUpdatedManually = true;
                     }
-                    updateInventoryTable(); // Refresh table after all potential updates
                 }
-                return null;
-            });
-            updateDialog.showAndWait();
+
+                // 3. Handle Price Update (after quantity and status to ensure latest state)
+                String newPriceStr = newPriceField.getText().trim();
+                if (!newPriceStr.isEmpty()) {
+                    patch = patch.withPrice(newPriceStr);
+                }
+
+                // Final check to see if any actual changes were made by user input
+                if (!quantityUpdated && !statusUpdatedManually && newPriceStr.isEmpty()) {
+                    showMessage("No changes made to bracelet " + id + ".");
+                } else if (!patch.isEmpty()) {
+                    updateAndPatch(id, patch);
+                }
+            }
+            return null;
+        });
+        updateDialog.showAndWait();
+    }
+
+    /**
+     * Shows a dialog for searching bracelet descriptions and lists the best matches.
+     */
+    private void showSearchDialog() {
+        TextInputDialog dialog = new TextInputDialog();
+        dialog.setTitle("Search Bracelets");
+        dialog.setHeaderText("Enter words from the description (partial words are fine):");
+        dialog.setContentText("Search:");
+
+        Optional<String> result = dialog.showAndWait();
+        result.map(String::trim).filter(query -> !query.isEmpty()).ifPresent(query -> runInBackground(
+                "Searching for " + query, task -> inventoryManager.searchBracelets(query, SEARCH_RESULT_LIMIT), matches -> {
+            if (matches.isEmpty()) {
+                showMessage(String.format("No bracelets match '%s'.", query));
+            } else {
+                StringBuilder report = new StringBuilder();
+                report.append(String.format("--- Bracelets Matching '%s' ---\n", query));
+                for (InventoryItem bracelet : matches) {
+                    report.append(String.format("ID: %s, Description: %s, Quantity: %d\n",
+                            bracelet.getId(), bracelet.getDescription(), bracelet.getQuantity()));
+                }
+                report.append("-------------------------------------------------------\n");
+                showMessage(report.toString());
+            }
+        }));
+    }
+
+    /**
+     * Prompts for an export file and writes the whole inventory to it in the background.
+     * The file name picks the format: ".csv" or ".jsonl", gzip-compressed when it ends in ".gz".
+     */
+    private void showExportDialog() {
+        TextInputDialog dialog = new TextInputDialog("inventory-export.csv");
+        dialog.setTitle("Export Inventory");
+        dialog.setHeaderText("Enter the file to export to (.csv or .jsonl, add .gz to compress):");
+        dialog.setContentText("Export File Path:");
+
+        Optional<String> result = dialog.showAndWait();
+        result.map(String::trim).ifPresent(path -> {
+            if (path.isEmpty()) {
+                showMessage("Export path cannot be empty.");
+                return;
+            }
+            runInBackground("Exporting inventory", task -> inventoryManager.exportInventory(Paths.get(path)),
+                    exportResult -> showMessage(exportResult.toString()));
         });
     }
 
@@ -576,24 +1009,49 @@ public class CeceCandiCornerGUI extends Application {
         dialog.setContentText("Threshold:");
 
         Optional<String> result = dialog.showAndWait();
-        result.ifPresent(thresholdStr -> {
-            List<Bracelet> lowStockItems = inventoryManager.generateLowStockReport(thresholdStr.trim());
-
+        result.ifPresent(thresholdStr -> runInBackground("Generating low stock report",
+                task -> inventoryManager.generateLowStockReport(thresholdStr.trim()), lowStockItems -> {
             if (lowStockItems == null) {
                 showMessage("Error: Threshold must be a valid non-negative integer.");
             } else if (lowStockItems.isEmpty()) {
+                watchLowStock(Integer.parseInt(thresholdStr.trim()));
                 showMessage(String.format("No bracelets currently below the specified stock threshold of %s.", thresholdStr));
             } else {
                 StringBuilder report = new StringBuilder();
                 report.append(String.format("--- Bracelets Below Stock Threshold (%s) ---\n", thresholdStr));
-                for (Bracelet bracelet : lowStockItems) {
+                for (InventoryItem bracelet : lowStockItems) {
                     report.append(String.format("ID: %s, Description: %s, Current Quantity: %d\n",
                             bracelet.getId(), bracelet.getDescription(), bracelet.getQuantity()));
                 }
                 report.append("-------------------------------------------------------\n");
                 showMessage(report.toString());
+                watchLowStock(Integer.parseInt(thresholdStr.trim()));
             }
-        });
+        }));
+    }
+
+    /**
+     * Switches live low-stock alerts to a new threshold, so staff do not have to re-run the report
+     * to notice items running out. Only one alert threshold is active at a time.
+     * @param threshold The threshold from the most recent low stock report, or the default at startup.
+     */
+    private void watchLowStock(int threshold) {
+        inventoryManager.removeLowStockListener(lowStockAlerts);
+        inventoryManager.addLowStockListener(threshold, lowStockAlerts);
+    }
+
+    /**
+     * Appends a live low-stock alert to the message area without clearing what is already shown.
+     * @param event The threshold crossing reported by the InventoryManager.
+     */
+    private void showLowStockAlert(LowStockEvent event) {
+        InventoryItem bracelet = event.item();
+        String alert = event.isLow()
+                ? String.format("Low stock alert: %s (ID: %s) is down to %d (below %d).",
+                        bracelet.getDescription(), bracelet.getId(), bracelet.getQuantity(), event.threshold())
+                : String.format("Restocked: %s (ID: %s) is back to %d.",
+                        bracelet.getDescription(), bracelet.getId(), bracelet.getQuantity());
+        messageArea.appendText((messageArea.getText().isEmpty() ? "" : "\n") + alert);
     }
 
     /**
@@ -605,4 +1063,53 @@ public class CeceCandiCornerGUI extends Application {
     public static void main(String[] args) {
         launch(args);
     }
+
+    /**
+     * The outcome of a mutation: the message to show and the row as it now stands (null if deleted).
+     * @param message The InventoryManager message.
+     * @param previous The bracelet read before the mutation, or null if it did not exist.
+     * @param row The re-read bracelet, or null if it does not exist.
+     */
+    private record RowChange(String message, InventoryItem previous, InventoryItem row) {
+    }
+
+    /**
+     * The result of a full inventory load.
+     * @param rows The loaded bracelets, in database order.
+     * @param index The filter index over those bracelets.
+     */
+    private record LoadedInventory(List<InventoryItem> rows, PrefixIndex index) {
+    }
+
+    /**
+     * A unit of database work run by {@link #runInBackground}. The task handle lets long-running
+     * work report progress and stop early when cancelled.
+     * @param <T> The type of result produced.
+     */
+    @FunctionalInterface
+    private interface BackgroundWork<T> {
+        T run(DataTask<?> task) throws Exception;
+    }
+
+    /**
+     * A JavaFX Task wrapping a {@link BackgroundWork}, exposing progress and message updates to it.
+     * @param <T> The type of result produced.
+     */
+    private static final class DataTask<T> extends Task<T> {
+        private final BackgroundWork<T> work;
+
+        DataTask(String description, BackgroundWork<T> work) {
+            this.work = work;
+            updateMessage(description);
+        }
+
+        @Override
+        protected T call() throws Exception {
+            return work.run(this);
+        }
+
+        void reportMessage(String message) {
+            updateMessage(message);
+        }
+    }
 }
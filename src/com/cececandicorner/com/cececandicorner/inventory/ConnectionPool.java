@@ -0,0 +1,240 @@
+package com.cececandicorner.inventory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ConnectionPool.java
+ * Keeps a bounded set of long-lived SQLite connections for the DatabaseManager so that each
+ * operation borrows an already-open connection instead of opening the database file again.
+ * The pool enforces a maximum size, closes connections that have been idle for longer than the
+ * configured timeout, optionally validates connections before handing them out, and records
+ * statistics (wait times, active/idle counts, statement cache hits and misses) that can be read
+ * through {@link #getStats()}.
+ */
+final class ConnectionPool implements AutoCloseable {
+
+    /** Seconds allowed for {@code Connection.isValid} when validating on borrow. */
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final DatabaseConfig config;
+
+    /** Idle connections; the most recently returned connection sits at the front. */
+    private final BlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+
+    /** One permit per connection that may be handed out. */
+    private final Semaphore permits;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+
+    /** Background task that closes connections idle for too long; null when eviction is disabled. */
+    private final ScheduledExecutorService evictor;
+
+    private volatile boolean closed;
+
+    /**
+     * Creates a new pool. Connections are opened lazily on first use.
+     * @param url    The JDBC URL of the database.
+     * @param config The pool settings.
+     */
+    ConnectionPool(String url, DatabaseConfig config) {
+        this.url = url;
+        this.config = config;
+        this.permits = new Semaphore(config.getPoolSize(), true);
+
+        long idleTimeout = config.getIdleTimeoutMillis();
+        if (idleTimeout > 0) {
+            evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "inventory-db-pool-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(1000L, idleTimeout / 2);
+            evictor.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            evictor = null;
+        }
+    }
+
+    /**
+     * Borrows a connection, waiting up to the configured borrow timeout if all are in use.
+     * The caller must close the returned connection to hand it back.
+     * @return A ready-to-use pooled connection.
+     * @throws SQLException if the pool is closed, the wait times out, or a new connection cannot be opened.
+     */
+    PooledConnection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed.");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(config.getBorrowTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + config.getBorrowTimeoutMillis()
+                        + " ms waiting for a database connection.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+
+        try {
+            PooledConnection conn = takeIdle();
+            if (conn == null) {
+                conn = open();
+            }
+            conn.markBorrowed();
+            active.incrementAndGet();
+            recordWait(System.nanoTime() - start);
+            return conn;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a new physical connection, applies the configured SQLite pragmas to it,
+     * and creates its statement cache.
+     * @return The new pooled connection.
+     * @throws SQLException if the database cannot be opened or a pragma fails.
+     */
+    private PooledConnection open() throws SQLException {
+        Connection connection = DriverManager.getConnection(url);
+        try (Statement statement = connection.createStatement()) {
+            for (String pragma : config.pragmaStatements()) {
+                statement.execute(pragma);
+            }
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        created.increment();
+        StatementCache cache = new StatementCache(connection, config.getStatementCacheSize(),
+                statementCacheHits, statementCacheMisses);
+        return new PooledConnection(this, connection, cache);
+    }
+
+    /**
+     * Takes the most recently used idle connection that is still usable, discarding stale ones.
+     * @return An idle connection, or null if none is available.
+     */
+    private PooledConnection takeIdle() {
+        PooledConnection conn;
+        while ((conn = idle.pollFirst()) != null) {
+            if (isExpired(conn)) {
+                discard(conn);
+                continue;
+            }
+            if (config.isValidateOnBorrow() && !isValid(conn)) {
+                discard(conn);
+                continue;
+            }
+            return conn;
+        }
+        return null;
+    }
+
+    /**
+     * Called by {@link PooledConnection#close()} to hand a connection back.
+     * @param conn The connection being returned.
+     */
+    void release(PooledConnection conn) {
+        active.decrementAndGet();
+        try {
+            if (closed || !conn.reset()) {
+                discard(conn);
+            } else {
+                idle.offerFirst(conn);
+                if (closed && idle.remove(conn)) { // pool was closed while we were returning
+                    discard(conn);
+                }
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Takes a snapshot of the pool's current statistics.
+     * @return The pool statistics.
+     */
+    PoolStats getStats() {
+        long borrows = borrowCount.sum();
+        double averageWait = borrows == 0 ? 0.0 : totalWaitNanos.sum() / (double) borrows / 1_000_000.0;
+        return new PoolStats(config.getPoolSize(), active.get(), idle.size(), borrows,
+                averageWait, maxWaitNanos.get() / 1_000_000.0,
+                created.sum(), evicted.sum(),
+                statementCacheHits.sum(), statementCacheMisses.sum());
+    }
+
+    /**
+     * Closes every idle connection and stops the evictor. Connections still on loan are
+     * closed as soon as they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+        PooledConnection conn;
+        while ((conn = idle.pollFirst()) != null) {
+            conn.closePhysical();
+        }
+    }
+
+    /**
+     * Closes idle connections that have exceeded the idle timeout. Runs on the evictor thread.
+     */
+    private void evictIdle() {
+        for (PooledConnection conn : idle) {
+            if (isExpired(conn) && idle.remove(conn)) {
+                discard(conn);
+            }
+        }
+    }
+
+    private boolean isExpired(PooledConnection conn) {
+        long idleTimeout = config.getIdleTimeoutMillis();
+        return idleTimeout > 0
+                && System.nanoTime() - conn.getLastReturnedNanos() > TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+    }
+
+    private boolean isValid(PooledConnection conn) {
+        try {
+            return conn.getConnection().isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discard(PooledConnection conn) {
+        evicted.increment();
+        conn.closePhysical();
+    }
+
+    private void recordWait(long waitNanos) {
+        borrowCount.increment();
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+}
@@ -0,0 +1,409 @@
+package com.cececandicorner.inventory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * CsvImporter.java
+ * Imports a supplier catalog from a CSV file into the bracelets table.
+ * Each line holds {@code id,description,quantity,price} and optionally a fifth {@code status} column
+ * ("In Stock" or "Out of Stock"; when missing it follows the quantity). A header line such as
+ * {@code id,description,quantity,price,status} is skipped, and fields may be double-quoted so
+ * descriptions can contain commas.
+ * The file is read sequentially in chunks of lines; the chunks are parsed and validated in parallel
+ * with allocation-light parsers that never throw on bad input; and the valid rows of each chunk are
+ * written, in file order, with one batched transaction through {@link DatabaseManager#insertBracelets}.
+ * Only a bounded number of chunks is in flight, so memory use does not grow with the file size.
+ * Rows that cannot be added are reported with their line numbers.
+ */
+public class CsvImporter {
+
+    /** Number of lines parsed (and later written) together. */
+    public static final int DEFAULT_CHUNK_LINES = 5_000;
+
+    /** At most this many rejects are kept with their reasons; all are counted. */
+    private static final int MAX_REPORTED_REJECTS = 1_000;
+
+    private static final int FIELD_COUNT_MAX = 5;
+
+    /** The parsed contents of one chunk of lines. */
+    private static final class ParsedChunk {
+        private final List<InventoryItem> items = new ArrayList<>();
+        private final List<Long> itemLines = new ArrayList<>(); // Line number of each entry in items
+        private final List<ImportReject> rejects = new ArrayList<>();
+        private int rows;
+    }
+
+    private final DatabaseManager dbManager;
+    private final int parallelism;
+    private final int chunkLines;
+
+    /**
+     * Creates an importer that parses on one thread per available processor.
+     * @param dbManager The database to import into.
+     */
+    public CsvImporter(DatabaseManager dbManager) {
+        this(dbManager, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_LINES);
+    }
+
+    /**
+     * Creates an importer with explicit tuning.
+     * @param dbManager   The database to import into.
+     * @param parallelism The number of parser threads, must be at least 1.
+     * @param chunkLines  The number of lines per chunk (and per insert transaction), must be at least 1.
+     */
+    public CsvImporter(DatabaseManager dbManager, int parallelism, int chunkLines) {
+        if (parallelism < 1 || chunkLines < 1) {
+            throw new IllegalArgumentException("Parallelism and chunk size must be at least 1.");
+        }
+        this.dbManager = dbManager;
+        this.parallelism = parallelism;
+        this.chunkLines = chunkLines;
+    }
+
+    /**
+     * Imports a CSV file.
+     * @param file The file to read (UTF-8).
+     * @return The import summary.
+     * @throws IOException if the file cannot be read.
+     */
+    public ImportResult importFile(Path file) throws IOException {
+        return importFile(file, inserted -> { });
+    }
+
+    /**
+     * Imports a CSV file, reporting the rows actually added after each chunk is committed.
+     * @param file       The file to read (UTF-8).
+     * @param onInserted Called on the importing thread with the bracelets each chunk added.
+     * @return The import summary.
+     * @throws IOException if the file cannot be read.
+     */
+    public ImportResult importFile(Path file, Consumer<List<InventoryItem>> onInserted) throws IOException {
+        long start = System.nanoTime();
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        ExecutorService parsers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "inventory-import-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Deque<Future<ParsedChunk>> inFlight = new ArrayDeque<>();
+        long[] totals = new long[4]; // rowsRead, inserted, duplicates, rejected
+        List<ImportReject> rejects = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            long lineNumber = 0;
+            List<String> lines = new ArrayList<>(chunkLines);
+            long firstLine = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1) {
+                    line = stripBom(line);
+                    if (isHeader(line)) {
+                        firstLine = 2;
+                        continue;
+                    }
+                }
+                lines.add(line);
+                if (lines.size() == chunkLines) {
+                    submit(parsers, inFlight, lines, firstLine);
+                    firstLine = lineNumber + 1;
+                    lines = new ArrayList<>(chunkLines);
+                    // Keep the parsers busy but never hold more than a few chunks in memory
+                    while (inFlight.size() > parallelism * 2) {
+                        write(await(inFlight.removeFirst()), totals, rejects, onInserted);
+                    }
+                }
+            }
+            if (!lines.isEmpty()) {
+                submit(parsers, inFlight, lines, firstLine);
+            }
+            while (!inFlight.isEmpty()) {
+                write(await(inFlight.removeFirst()), totals, rejects, onInserted);
+            }
+        } finally {
+            parsers.shutdownNow();
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return new ImportResult(totals[0], totals[1], totals[2], totals[3], rejects, elapsedMillis);
+    }
+
+    private void submit(ExecutorService parsers, Deque<Future<ParsedChunk>> inFlight, List<String> lines, long firstLine) {
+        inFlight.addLast(parsers.submit(() -> parseChunk(lines, firstLine)));
+    }
+
+    private static ParsedChunk await(Future<ParsedChunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import interrupted.");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to parse import chunk", e.getCause());
+        }
+    }
+
+    /**
+     * Writes the valid rows of a chunk in one batched transaction and tallies the outcome.
+     */
+    private void write(ParsedChunk chunk, long[] totals, List<ImportReject> rejects,
+                       Consumer<List<InventoryItem>> onInserted) {
+        totals[0] += chunk.rows;
+        for (ImportReject reject : chunk.rejects) {
+            addReject(reject, totals, rejects);
+        }
+        if (chunk.items.isEmpty()) {
+            return;
+        }
+        List<InsertOutcome> outcomes = dbManager.insertBracelets(chunk.items);
+        List<InventoryItem> inserted = new ArrayList<>(chunk.items.size());
+        for (int i = 0; i < outcomes.size(); i++) {
+            switch (outcomes.get(i)) {
+                case INSERTED:
+                    inserted.add(chunk.items.get(i));
+                    break;
+                case DUPLICATE:
+                    totals[2]++;
+                    addReject(new ImportReject(chunk.itemLines.get(i),
+                            "A bracelet with ID '" + chunk.items.get(i).getId() + "' already exists"), totals, rejects);
+                    break;
+                default:
+                    addReject(new ImportReject(chunk.itemLines.get(i), "Could not be saved to the database"), totals, rejects);
+            }
+        }
+        totals[1] += inserted.size();
+        if (!inserted.isEmpty()) {
+            onInserted.accept(inserted);
+        }
+    }
+
+    private static void addReject(ImportReject reject, long[] totals, List<ImportReject> rejects) {
+        totals[3]++;
+        if (rejects.size() < MAX_REPORTED_REJECTS) {
+            rejects.add(reject);
+        }
+    }
+
+    /**
+     * Parses and validates a chunk of lines. Runs on a parser thread and never throws on bad input.
+     * @param lines     The raw lines.
+     * @param firstLine The line number of the first line.
+     * @return The valid bracelets and the rejected lines.
+     */
+    private static ParsedChunk parseChunk(List<String> lines, long firstLine) {
+        ParsedChunk chunk = new ParsedChunk();
+        int[] bounds = new int[FIELD_COUNT_MAX * 2]; // start/end index of each field, reused per line
+        boolean[] quoted = new boolean[FIELD_COUNT_MAX];
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            long lineNumber = firstLine + i;
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.rows++;
+            int fields = splitFields(line, bounds, quoted);
+            if (fields < 0) {
+                chunk.rejects.add(new ImportReject(lineNumber, "Malformed quoted field"));
+                continue;
+            }
+            if (fields != 4 && fields != 5) {
+                chunk.rejects.add(new ImportReject(lineNumber, "Expected 4 or 5 fields but found " + fields));
+                continue;
+            }
+            String id = field(line, bounds, quoted, 0).trim();
+            if (id.isEmpty()) {
+                chunk.rejects.add(new ImportReject(lineNumber, "ID cannot be empty"));
+                continue;
+            }
+            String description = field(line, bounds, quoted, 1).trim();
+            if (description.isEmpty()) {
+                chunk.rejects.add(new ImportReject(lineNumber, "Description cannot be empty"));
+                continue;
+            }
+            int quantity = FieldParsers.parseNonNegativeInt(line, trimStart(line, bounds[4], bounds[5]), trimEnd(line, bounds[4], bounds[5]));
+            if (quantity == -1) {
+                chunk.rejects.add(new ImportReject(lineNumber, "Quantity must be a valid non-negative integer"));
+                continue;
+            }
+            double price = FieldParsers.parseNonNegativeDecimal(line, bounds[6], bounds[7]);
+            if (price == -1.0) {
+                chunk.rejects.add(new ImportReject(lineNumber, "Price must be a valid non-negative number"));
+                continue;
+            }
+            String status = quantity == 0 ? "Out of Stock" : "In Stock";
+            if (fields == 5) {
+                String given = field(line, bounds, quoted, 4).trim();
+                if (given.equalsIgnoreCase("In Stock")) {
+                    status = "In Stock";
+                } else if (given.equalsIgnoreCase("Out of Stock")) {
+                    status = "Out of Stock";
+                } else if (!given.isEmpty()) {
+                    chunk.rejects.add(new ImportReject(lineNumber, "Status must be 'In Stock' or 'Out of Stock'"));
+                    continue;
+                }
+            }
+            chunk.items.add(new InventoryItem(id, description, quantity, price, status));
+            chunk.itemLines.add(lineNumber);
+        }
+        return chunk;
+    }
+
+    /**
+     * Finds the fields of a CSV line without copying it. Quoted fields are recorded without their
+     * quotes and flagged, since doubled quotes inside them still need unescaping.
+     * @param line   The line.
+     * @param bounds Receives the start and end index of each field.
+     * @param quoted Receives whether each field was quoted.
+     * @return The number of fields (more than the arrays hold are counted but not recorded),
+     * or -1 if a quoted field is not closed properly.
+     */
+    private static int splitFields(String line, int[] bounds, boolean[] quoted) {
+        int count = 0;
+        int i = 0;
+        int length = line.length();
+        while (true) {
+            int start = i;
+            int end;
+            boolean isQuoted = false;
+            int first = start;
+            while (first < length && line.charAt(first) == ' ') {
+                first++;
+            }
+            if (first < length && line.charAt(first) == '"') {
+                isQuoted = true;
+                start = first + 1;
+                i = start;
+                while (true) {
+                    if (i >= length) {
+                        return -1; // No closing quote
+                    }
+                    if (line.charAt(i) == '"') {
+                        if (i + 1 < length && line.charAt(i + 1) == '"') {
+                            i += 2; // Escaped quote
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                end = i;
+                i++; // Past the closing quote
+                while (i < length && line.charAt(i) == ' ') {
+                    i++;
+                }
+                if (i < length && line.charAt(i) != ',') {
+                    return -1; // Text after the closing quote
+                }
+            } else {
+                while (i < length && line.charAt(i) != ',') {
+                    i++;
+                }
+                end = i;
+            }
+            if (count < FIELD_COUNT_MAX) {
+                bounds[count * 2] = start;
+                bounds[count * 2 + 1] = end;
+                quoted[count] = isQuoted;
+            }
+            count++;
+            if (i >= length) {
+                return count;
+            }
+            i++; // Past the comma
+        }
+    }
+
+    private static String field(String line, int[] bounds, boolean[] quoted, int index) {
+        String value = line.substring(bounds[index * 2], bounds[index * 2 + 1]);
+        return quoted[index] ? value.replace("\"\"", "\"") : value;
+    }
+
+    private static int trimStart(String line, int start, int end) {
+        while (start < end && line.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(String line, int start, int end) {
+        while (end > start && line.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private static String stripBom(String line) {
+        return !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+    }
+
+    // A header names the columns: "id", any description title, "quantity", "price" and optionally "status".
+    // Checking every name keeps a data row whose ID happens to be "id" from being skipped.
+    private static boolean isHeader(String line) {
+        int[] bounds = new int[FIELD_COUNT_MAX * 2];
+        boolean[] quoted = new boolean[FIELD_COUNT_MAX];
+        int fields = splitFields(line, bounds, quoted);
+        if (fields != 4 && fields != 5) {
+            return false;
+        }
+        return isColumn(line, bounds, quoted, 0, "id")
+                && isColumn(line, bounds, quoted, 2, "quantity")
+                && isColumn(line, bounds, quoted, 3, "price")
+                && (fields == 4 || isColumn(line, bounds, quoted, 4, "status"));
+    }
+
+    private static boolean isColumn(String line, int[] bounds, boolean[] quoted, int index, String name) {
+        return field(line, bounds, quoted, index).trim().equalsIgnoreCase(name);
+    }
+
+    /**
+     * Headless entry point: imports a CSV file into a database file and prints the summary
+     * and the rejected lines.
+     * Usage: {@code CsvImporter <database file> <csv file>}
+     * @param args The database path and the CSV path.
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: CsvImporter <database file> <csv file>");
+            System.exit(2);
+        }
+        int exitCode = 0;
+        // Exit only after the try block, so the database manager is always closed first
+        try (DatabaseManager dbManager = new DatabaseManager(args[0])) {
+            if (!dbManager.createTable()) {
+                System.err.println("Failed to ensure database table exists.");
+                exitCode = 1;
+            } else {
+                ImportResult result = new CsvImporter(dbManager).importFile(Paths.get(args[1]));
+                System.out.println(result);
+                for (ImportReject reject : result.rejects()) {
+                    System.out.println(reject);
+                }
+                if (result.rejects().size() < result.rejected()) {
+                    System.out.println("... " + (result.rejected() - result.rejects().size()) + " more rejected lines not shown.");
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading " + args[1] + ": " + e.getMessage());
+            exitCode = 1;
+        }
+        if (exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+}
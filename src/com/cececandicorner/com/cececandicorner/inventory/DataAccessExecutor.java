@@ -0,0 +1,72 @@
+package com.cececandicorner.inventory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataAccessExecutor.java
+ * A small, dedicated thread pool for database work, so that callers such as the JavaFX
+ * application thread never block on SQLite. Threads are daemons named "inventory-db-N",
+ * so a forgotten executor never keeps the JVM alive. The number of threads should stay at
+ * or below the connection pool size; SQLite gains nothing from more concurrent callers.
+ */
+public class DataAccessExecutor implements Executor, AutoCloseable {
+
+    /** Seconds to wait for queued work to finish on close. */
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Creates an executor with a fixed number of worker threads.
+     * @param threads The number of threads, must be at least 1.
+     */
+    public DataAccessExecutor(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1.");
+        }
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "inventory-db-" + threadNumber.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Queues a unit of database work.
+     * @param command The work to run on a database thread.
+     */
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(command);
+    }
+
+    /**
+     * Retrieves the number of tasks waiting for a free thread.
+     * @return The queue length.
+     */
+    public int getQueuedTaskCount() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Stops accepting work and waits briefly for queued work (such as a final save) to finish.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
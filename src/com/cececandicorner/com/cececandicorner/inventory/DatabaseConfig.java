@@ -0,0 +1,471 @@
+package com.cececandicorner.inventory;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * DatabaseConfig.java
+ * Holds the tunable settings used by the DatabaseManager when it talks to SQLite.
+ * A default instance is suitable for a single counter terminal; larger installations
+ * can adjust the values before handing the config to the DatabaseManager constructor.
+ * Setters return this config so several settings can be chained together.
+ * The SQLite pragmas (journal mode, synchronous level, memory map, page cache, temp store and
+ * busy timeout) are applied to every pooled connection when it is opened. Two presets are provided:
+ * <ul>
+ *   <li>{@link #durable()} (the default): WAL journal with {@code synchronous=FULL}. Every commit is
+ *   fsynced, so a committed sale survives a power cut. Readers no longer wait for writers.</li>
+ *   <li>{@link #fast()}: WAL journal with {@code synchronous=NORMAL}, a 256 MB memory map, a 64 MB page
+ *   cache and in-memory temp tables. Commits skip the fsync, so the last few commits can be lost
+ *   (but the file is never corrupted) if the machine loses power, and the process uses more memory.</li>
+ * </ul>
+ * {@link #fromSystemProperties()} picks a preset with {@code -Dcececandicorner.db.profile=fast}
+ * and lets single pragmas be overridden the same way.
+ */
+public class DatabaseConfig {
+
+    /** Prefix of the system properties read by {@link #fromSystemProperties()}. */
+    public static final String PROPERTY_PREFIX = "cececandicorner.db.";
+
+    private static final Set<String> JOURNAL_MODES = Set.of("DELETE", "TRUNCATE", "PERSIST", "MEMORY", "WAL", "OFF");
+    private static final Set<String> SYNCHRONOUS_LEVELS = Set.of("OFF", "NORMAL", "FULL", "EXTRA");
+    private static final Set<String> TEMP_STORES = Set.of("DEFAULT", "FILE", "MEMORY");
+
+    /** Maximum number of physical connections the pool will keep open at once. */
+    private int poolSize = 4;
+
+    /** How long (in milliseconds) a connection may sit idle in the pool before it is closed. 0 disables eviction. */
+    private long idleTimeoutMillis = 5 * 60 * 1000L;
+
+    /** How long (in milliseconds) a caller waits for a free connection before giving up. */
+    private long borrowTimeoutMillis = 30 * 1000L;
+
+    /** Whether a pooled connection is checked with {@code Connection.isValid} before it is handed out. */
+    private boolean validateOnBorrow = true;
+
+    /** Maximum number of prepared statements cached per connection. */
+    private int statementCacheSize = 32;
+
+    /** Number of rows sent to SQLite per executeBatch call during bulk inserts. */
+    private int batchChunkSize = 500;
+
+    /** Number of rows the driver is asked to fetch at a time when streaming large reads. */
+    private int fetchSize = 256;
+
+    /** Maximum number of bracelet IDs kept in the lookup cache (including unknown IDs). 0 disables the cache. */
+    private int itemCacheSize = 1024;
+
+    /** Maximum number of concurrent single-row writes committed together by the group commit writer. 0 disables group commit. */
+    private int groupCommitBatchSize = 0;
+
+    /** SQLite {@code journal_mode}. WAL lets readers run while a write is in progress. */
+    private String journalMode = "WAL";
+
+    /** SQLite {@code synchronous} level: how often commits are flushed to disk. */
+    private String synchronous = "FULL";
+
+    /** SQLite {@code mmap_size} in bytes. 0 reads the file through normal I/O only. */
+    private long mmapSize = 0;
+
+    /** SQLite {@code cache_size}: pages if positive, KiB if negative (SQLite's default is -2000). */
+    private int cacheSize = -2000;
+
+    /** SQLite {@code temp_store}: where temporary tables and indices used by sorts are kept. */
+    private String tempStore = "DEFAULT";
+
+    /** SQLite {@code busy_timeout} in milliseconds: how long a statement waits for a lock before failing. */
+    private int busyTimeoutMillis = 5000;
+
+    /**
+     * Creates a config with the default (durable) settings.
+     */
+    public DatabaseConfig() {
+    }
+
+    /**
+     * Creates the durable preset: every commit is fsynced. This is also what the default constructor gives.
+     * @return A new config using the durable preset.
+     */
+    public static DatabaseConfig durable() {
+        return new DatabaseConfig();
+    }
+
+    /**
+     * Creates the fast preset: commits are not fsynced individually, and more memory is used
+     * for the page cache and memory map. A power cut may lose the most recent commits.
+     * @return A new config using the fast preset.
+     */
+    public static DatabaseConfig fast() {
+        return new DatabaseConfig()
+                .setJournalMode("WAL")
+                .setSynchronous("NORMAL")
+                .setMmapSize(256L * 1024 * 1024)
+                .setCacheSize(-64000)
+                .setTempStore("MEMORY");
+    }
+
+    /**
+     * Creates a config from system properties. {@code cececandicorner.db.profile} selects the
+     * preset ("durable" or "fast", default durable), and {@code journalMode}, {@code synchronous},
+     * {@code mmapSize}, {@code cacheSize}, {@code tempStore} and {@code busyTimeoutMillis} under the same
+     * prefix override single pragmas.
+     * @return A new config.
+     * @throws IllegalArgumentException if a property has an invalid value.
+     */
+    public static DatabaseConfig fromSystemProperties() {
+        String profile = System.getProperty(PROPERTY_PREFIX + "profile", "durable").trim().toLowerCase(Locale.ROOT);
+        DatabaseConfig config;
+        switch (profile) {
+            case "durable": config = durable(); break;
+            case "fast": config = fast(); break;
+            default: throw new IllegalArgumentException("Unknown database profile: " + profile);
+        }
+        String value;
+        if ((value = System.getProperty(PROPERTY_PREFIX + "journalMode")) != null) {
+            config.setJournalMode(value);
+        }
+        if ((value = System.getProperty(PROPERTY_PREFIX + "synchronous")) != null) {
+            config.setSynchronous(value);
+        }
+        if ((value = System.getProperty(PROPERTY_PREFIX + "mmapSize")) != null) {
+            config.setMmapSize(Long.parseLong(value.trim()));
+        }
+        if ((value = System.getProperty(PROPERTY_PREFIX + "cacheSize")) != null) {
+            config.setCacheSize(Integer.parseInt(value.trim()));
+        }
+        if ((value = System.getProperty(PROPERTY_PREFIX + "tempStore")) != null) {
+            config.setTempStore(value);
+        }
+        if ((value = System.getProperty(PROPERTY_PREFIX + "busyTimeoutMillis")) != null) {
+            config.setBusyTimeoutMillis(Integer.parseInt(value.trim()));
+        }
+        return config;
+    }
+
+    /**
+     * Retrieves the maximum number of pooled connections.
+     * @return The pool size.
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Sets the maximum number of pooled connections.
+     * @param poolSize The pool size, must be at least 1.
+     * @return This config, for chaining.
+     */
+    public DatabaseConfig setPoolSize(int poolSize) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1.");
+        }
+        this.poolSize = poolSize;
+        return this;
+    }
+
+    /**
+     * Retrieves the idle timeout for pooled connections.
+     * @return The idle timeout in milliseconds (0 means idle connections are never evicted).
+     */
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    /**
+     * Sets the idle timeout for pooled connections.
+     * @param idleTimeoutMillis The idle timeout in milliseconds, or 0 to disable eviction.
+     * @return This config, for chaining.
+     */
+    public DatabaseConfig setIdleTimeoutMillis(long idleTimeoutMillis) {
+        if (idleTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Idle timeout cannot be negative.");
+        }
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * Retrieves how long a caller waits for a free connection.
+     * @return The borrow timeout in milliseconds.
+     */
+    public long getBorrowTimeoutMillis() {
+        return borrowTimeoutMillis;
+    }
+
+    /**
+     * Sets how long a caller waits for a free connection.
+     * @param borrowTimeoutMillis The borrow timeout in milliseconds, must be positive.
+     * @return This config, for chaining.
+     */
+    public DatabaseConfig setBorrowTimeoutMillis(long borrowTimeoutMillis) {
+        if (borrowTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Borrow timeout must be positive.");
+        }
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * Checks whether pooled connections are validated before being handed out.
+     * @return true if connections are validated on borrow, false otherwise.
+     */
+    public boolean isValidateOnBorrow() {
+        return validateOnBorrow;
+    }
+
+    /**
+     * Sets whether pooled connections are validated before being handed out.
+     * @param validateOnBorrow true to validate on borrow.
+     * @return This config, for chaining.
+     */
+    public DatabaseConfig setValidateOnBorrow(boolean validateOnBorrow) {
+        this.validateOnBorrow = validateOnBorrow;
+        return this;
+    }
+
+    /**
+     * Retrieves the per-connection prepared statement cache size.
+     * @return The maximum number of cached statements per connection.
+     */
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    /**
+     * Sets the per-connection prepared statement cache size.
+     * @param statementCacheSize The maximum number of cached statements, must be at least 1.
+     * @return This config, for chaining.
+     */
+    public DatabaseConfig setStatementCacheSize(int statementCacheSize) {
+        if (statementCacheSize < 1) {
+            throw new IllegalArgumentException("Statement cache size must be at least 1.");
+        }
+        this.statementCacheSize = statementCacheSize;
+        return this;
+    }
+
+    /**
+     * Retrieves the number of rows sent per executeBatch call during bulk inserts.
+     * @return The batch chunk size.
+     */
+    public int getBatchChunkSize() {
+        return batchChunkSize;
+    }
+
+    /**
+     * Sets the number of rows sent per executeBatch call during bulk inserts.
+     * @param batchChunkSize The batch chunk size, must be at least 1.
+     * @return This config, for chaining.
+     */
+    public DatabaseConfig setBatchChunkSize(int batchChunkSize) {
+        if (batchChunkSize < 1) {
+            throw new IllegalArgumentException("Batch chunk size must be at least 1.");
+        }
+        this.batchChunkSize = batchChunkSize;
+        return this;
+    }
+
+    /**
+     * Retrieves the fetch size hint used for streaming reads.
+     * @return The number of rows fetched at a time.
+     */
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Sets the fetch size hint used for streaming reads.
+     * @param fetchSize The number of rows fetched at a time, must be at least 1.
+     * @return This config, for chaining.
+     */
+    public DatabaseConfig setFetchSize(int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("Fetch size must be at least 1.");
+        }
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    /**
+     * Retrieves the size of the bracelet lookup cache.
+     * @return The maximum number of cached IDs (0 means caching is off).
+     */
+    public int getItemCacheSize() {
+        return itemCacheSize;
+    }
+
+    /**
+     * Sets the size of the bracelet lookup cache. Use 0 when other programs write to the same
+     * database file, since the cache only sees writes made through this DatabaseManager.
+     * @param itemCacheSize The maximum number of cached IDs, or 0 to disable the cache.
+     * @return This config, for chaining.
+     */
+    public DatabaseConfig setItemCacheSize(int itemCacheSize) {
+        if (itemCacheSize < 0) {
+            throw new IllegalArgumentException("Item cache size cannot be negative.");
+        }
+        this.itemCacheSize = itemCacheSize;
+        return this;
+    }
+
+    /**
+     * Retrieves the group commit batch size.
+     * @return The maximum number of writes per group commit (0 means group commit is off).
+     */
+    public int getGroupCommitBatchSize() {
+        return groupCommitBatchSize;
+    }
+
+    /**
+     * Sets the group commit batch size. When positive, single-row writes from all threads are handed
+     * to one writer thread, which commits whatever has queued up (up to this many) in one transaction.
+     * This helps when many threads write at once; a single writer only pays a thread hand-off.
+     * @param groupCommitBatchSize The maximum number of writes per commit, or 0 to write on the caller's thread.
+     * @return This config, for chaining.
+     */
+    public DatabaseConfig setGroupCommitBatchSize(int groupCommitBatchSize) {
+        if (groupCommitBatchSize < 0) {
+            throw new IllegalArgumentException("Group commit batch size cannot be negative.");
+        }
+        this.groupCommitBatchSize = groupCommitBatchSize;
+        return this;
+    }
+
+    /**
+     * Retrieves the SQLite journal mode.
+     * @return The journal mode (e.g., "WAL").
+     */
+    public String getJournalMode() {
+        return journalMode;
+    }
+
+    /**
+     * Sets the SQLite journal mode.
+     * @param journalMode One of DELETE, TRUNCATE, PERSIST, MEMORY, WAL or OFF.
+     * @return This config, for chaining.
+     */
+    public DatabaseConfig setJournalMode(String journalMode) {
+        this.journalMode = checkOneOf(journalMode, JOURNAL_MODES, "journal mode");
+        return this;
+    }
+
+    /**
+     * Retrieves the SQLite synchronous level.
+     * @return The synchronous level (e.g., "FULL").
+     */
+    public String getSynchronous() {
+        return synchronous;
+    }
+
+    /**
+     * Sets the SQLite synchronous level. With WAL, NORMAL is safe against corruption but may lose
+     * the latest commits on power loss; FULL fsyncs every commit.
+     * @param synchronous One of OFF, NORMAL, FULL or EXTRA.
+     * @return This config, for chaining.
+     */
+    public DatabaseConfig setSynchronous(String synchronous) {
+        this.synchronous = checkOneOf(synchronous, SYNCHRONOUS_LEVELS, "synchronous level");
+        return this;
+    }
+
+    /**
+     * Retrieves the size of the SQLite memory map.
+     * @return The memory map size in bytes (0 means memory-mapped I/O is off).
+     */
+    public long getMmapSize() {
+        return mmapSize;
+    }
+
+    /**
+     * Sets the size of the SQLite memory map.
+     * @param mmapSize The memory map size in bytes, or 0 to turn memory-mapped I/O off.
+     * @return This config, for chaining.
+     */
+    public DatabaseConfig setMmapSize(long mmapSize) {
+        if (mmapSize < 0) {
+            throw new IllegalArgumentException("Memory map size cannot be negative.");
+        }
+        this.mmapSize = mmapSize;
+        return this;
+    }
+
+    /**
+     * Retrieves the SQLite page cache size.
+     * @return The cache size: pages if positive, KiB if negative.
+     */
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * Sets the SQLite page cache size, per connection.
+     * @param cacheSize The cache size: a number of pages if positive, or a size in KiB if negative.
+     * @return This config, for chaining.
+     */
+    public DatabaseConfig setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+        return this;
+    }
+
+    /**
+     * Retrieves where SQLite keeps temporary tables.
+     * @return The temp store (e.g., "MEMORY").
+     */
+    public String getTempStore() {
+        return tempStore;
+    }
+
+    /**
+     * Sets where SQLite keeps temporary tables and indices.
+     * @param tempStore One of DEFAULT, FILE or MEMORY.
+     * @return This config, for chaining.
+     */
+    public DatabaseConfig setTempStore(String tempStore) {
+        this.tempStore = checkOneOf(tempStore, TEMP_STORES, "temp store");
+        return this;
+    }
+
+    /**
+     * Retrieves how long a statement waits for a database lock.
+     * @return The busy timeout in milliseconds.
+     */
+    public int getBusyTimeoutMillis() {
+        return busyTimeoutMillis;
+    }
+
+    /**
+     * Sets how long a statement waits for a database lock before failing with SQLITE_BUSY.
+     * @param busyTimeoutMillis The busy timeout in milliseconds, or 0 to fail immediately.
+     * @return This config, for chaining.
+     */
+    public DatabaseConfig setBusyTimeoutMillis(int busyTimeoutMillis) {
+        if (busyTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Busy timeout cannot be negative.");
+        }
+        this.busyTimeoutMillis = busyTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * Builds the PRAGMA statements to run on each new connection. Every value has been checked
+     * by its setter, so the statements can be built as text.
+     * @return The PRAGMA statements, in the order they should run.
+     */
+    String[] pragmaStatements() {
+        return new String[]{
+                "PRAGMA busy_timeout = " + busyTimeoutMillis, // First, so the journal mode switch can wait for a lock
+                "PRAGMA journal_mode = " + journalMode,
+                "PRAGMA synchronous = " + synchronous,
+                "PRAGMA mmap_size = " + mmapSize,
+                "PRAGMA cache_size = " + cacheSize,
+                "PRAGMA temp_store = " + tempStore
+        };
+    }
+
+    private static String checkOneOf(String value, Set<String> allowed, String name) {
+        String normalized = value == null ? "" : value.trim().toUpperCase(Locale.ROOT);
+        if (!allowed.contains(normalized)) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value + ". Expected one of " + allowed + ".");
+        }
+        return normalized;
+    }
+}
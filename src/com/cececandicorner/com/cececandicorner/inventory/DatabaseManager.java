@@ -1,13 +1,20 @@
 package com.cececandicorner.inventory;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * DatabaseManager.java
@@ -15,19 +22,71 @@ import java.util.List;
  * This class handles connecting to the database, creating the table, and performing
  * CRUD (Create, Read, Update, Delete) operations on the 'bracelets' table.
  * It encapsulates JDBC logic and handles SQL exceptions.
+ * Connections are borrowed from a {@link ConnectionPool} owned by this manager rather than
+ * opened per call; call {@link #close()} when the application shuts down to release them.
+ * Rows are read and written as immutable {@link InventoryItem} objects, so this class has no
+ * dependency on JavaFX.
+ * Lookups by ID go through a bounded {@link ItemCache}, which every write through this manager
+ * invalidates, so popular items are served from memory instead of from disk.
+ * If group commit is enabled in the {@link DatabaseConfig}, single-row writes from concurrent
+ * callers are funnelled through a {@link GroupCommitPipeline} and committed together; each caller
+ * still blocks until its own write is committed and gets its own result.
  */
-public class DatabaseManager {
+public class DatabaseManager implements AutoCloseable {
+
+    /**
+     * The indexed columns a page of bracelets can be ordered by.
+     * Ties on quantity are broken by ID so every row has a unique position.
+     */
+    public enum SortKey {
+        /** Order by the bracelet ID (primary key). */
+        ID,
+        /** Order by quantity, lowest first, then by ID (uses the quantity index). */
+        QUANTITY
+    }
+
+    /**
+     * A coalesced change to one bracelet, as queued by a write-behind InventoryManager.
+     * @param id            The ID of the bracelet.
+     * @param quantityDelta The amount to add to the stored quantity (0 for none).
+     * @param price         The new price, or null to keep the stored one.
+     * @param status        The new status, or null to let the quantity decide it as in {@link #adjustQuantity}.
+     */
+    public record StockChange(String id, int quantityDelta, Double price, String status) {}
+
+    /**
+     * The outcome of {@link #patchBracelet}: the row before and after the change.
+     * Both are null if no bracelet has the ID.
+     * @param previous The bracelet as it was stored before the change.
+     * @param updated  The bracelet as it is stored now.
+     */
+    public record PatchedBracelet(InventoryItem previous, InventoryItem updated) {}
 
     // Database URL prefix for SQLite
     private String DB_URL_PREFIX = "jdbc:sqlite:";
     private String dbPath; // Stores the user-provided database file path
+    private final ConnectionPool pool; // Long-lived connections shared by all operations
+    private final DatabaseConfig config;
+    private final ItemCache itemCache; // Read-through cache for lookups by ID
+    private final GroupCommitPipeline groupCommit; // Null unless group commit is enabled
 
     /**
-     * Constructor for DatabaseManager.
+     * Constructor for DatabaseManager using a {@link DatabaseConfig} built from system properties
+     * (the durable preset unless {@code -Dcececandicorner.db.profile=fast} is given).
      * @param dbPath The file path to the SQLite database file (e.g., "inventory.db").
      */
     public DatabaseManager(String dbPath) {
+        this(dbPath, DatabaseConfig.fromSystemProperties());
+    }
+
+    /**
+     * Constructor for DatabaseManager with explicit settings.
+     * @param dbPath The file path to the SQLite database file (e.g., "inventory.db").
+     * @param config The connection pool and tuning settings to use.
+     */
+    public DatabaseManager(String dbPath, DatabaseConfig config) {
         this.dbPath = dbPath;
+        this.config = config;
         // Load the SQLite JDBC driver. This is typically not strictly necessary for modern JDBC,
         // but good practice for clarity.
         try {
@@ -36,50 +95,178 @@ public class DatabaseManager {
             System.err.println("Error: SQLite JDBC driver not found. Make sure sqlite-jdbc.jar is in your classpath.");
             // You might want to throw a runtime exception here or handle more gracefully
         }
+        // dbPath will be something like "C:/path/to/inventory.db"
+        this.pool = new ConnectionPool(DB_URL_PREFIX + dbPath, config);
+        this.itemCache = new ItemCache(config.getItemCacheSize());
+        this.groupCommit = config.getGroupCommitBatchSize() > 0
+                ? new GroupCommitPipeline(pool, config.getGroupCommitBatchSize()) : null;
     }
 
     /**
-     * Establishes a connection to the SQLite database.
-     * @return A Connection object if successful, null otherwise.
-     * Displays an error message if connection fails.
+     * Borrows a connection to the SQLite database from the pool.
+     * Closing the returned connection hands it back to the pool for reuse.
+     * @return A pooled connection.
+     * @throws SQLException if no connection could be obtained.
      */
-    private Connection connect() {
-        Connection conn = null;
+    private PooledConnection connect() throws SQLException {
         try {
-            // dbPath will be something like "C:/path/to/inventory.db"
-            conn = DriverManager.getConnection(DB_URL_PREFIX + dbPath);
-            // System.out.println("Connection to SQLite database established successfully."); // For debugging
+            return pool.borrow();
         } catch (SQLException e) {
             System.err.println("Error connecting to database at " + dbPath + ": " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Runs a single-row write: on a borrowed connection in its own transaction, or, with group commit
+     * enabled, as part of the next group commit batch. Either way this returns once the write is committed.
+     * @param work The write to run.
+     * @param <T>  The type of the write's result.
+     * @return The write's result.
+     * @throws SQLException if the write or its commit fails.
+     */
+    private <T> T write(GroupCommitPipeline.Write<T> work) throws SQLException {
+        if (groupCommit == null) {
+            try (PooledConnection conn = connect()) {
+                return work.apply(conn);
+            }
+        }
+        try {
+            return groupCommit.submit(work).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Takes a snapshot of the connection pool statistics (borrow wait time, active and idle counts,
+     * and prepared statement cache hits/misses).
+     * @return The current pool statistics.
+     */
+    public PoolStats getPoolStats() {
+        return pool.getStats();
+    }
+
+    /**
+     * Takes a snapshot of the lookup cache statistics (hit rate, evictions and load latency).
+     * @return The current cache statistics.
+     */
+    public ItemCacheStats getItemCacheStats() {
+        return itemCache.getStats();
+    }
+
+    /**
+     * Finishes any queued group commit writes, then closes all pooled connections.
+     * The manager should not be used afterwards.
+     */
+    @Override
+    public void close() {
+        if (groupCommit != null) {
+            groupCommit.close();
         }
-        return conn;
+        pool.close();
     }
 
     /**
      * Creates the 'bracelets' table for user if it does not already exist.
-     * Assumes the table schema: id (TEXT PRIMARY KEY), description (TEXT),
+     * Assumes the table schema: row_key (INTEGER PRIMARY KEY), id (TEXT, unique), description (TEXT),
      * quantity (INTEGER), price (REAL), status (TEXT).
+     * Also creates an index on (quantity, id) so low-stock queries and quantity-ordered
+     * reads can be answered from the index in sorted order.
      * @return true if table creation was successful or table already exists, false otherwise.
      */
     public boolean createTable() {
-        String sql = "CREATE TABLE IF NOT EXISTS bracelets (" +
-                "id TEXT PRIMARY KEY," +
+        String quantityIndexSql = "CREATE INDEX IF NOT EXISTS idx_bracelets_quantity ON bracelets(quantity, id);";
+        try (PooledConnection conn = connect();
+             Statement stmt = conn.getConnection().createStatement()) {
+            if (!hasRowKey(stmt)) {
+                addRowKey(conn.getConnection(), stmt);
+            }
+            stmt.execute(createBraceletsSql("bracelets"));
+            stmt.execute(quantityIndexSql);
+            createSearchIndex(stmt);
+            // System.out.println("Table 'bracelets' checked/created successfully."); // For debugging
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error creating table: " + e.getMessage());
+        }
+        return false;
+    }
+
+    // row_key gives each bracelet a rowid that VACUUM cannot renumber, which the search index relies on
+    private static String createBraceletsSql(String table) {
+        return "CREATE TABLE IF NOT EXISTS " + table + " (" +
+                "row_key INTEGER PRIMARY KEY," +
+                "id TEXT NOT NULL UNIQUE," +
                 "description TEXT NOT NULL," +
                 "quantity INTEGER NOT NULL," +
                 "price REAL NOT NULL," +
                 "status TEXT NOT NULL" +
                 ");";
-        try (Connection conn = connect();
-             Statement stmt = conn.createStatement()) {
-            if (conn != null) {
-                stmt.execute(sql);
-                // System.out.println("Table 'bracelets' checked/created successfully."); // For debugging
-                return true;
+    }
+
+    /**
+     * Checks whether the bracelets table is missing or already has its row_key column.
+     * @param stmt A statement on the connection to use.
+     * @return true if there is nothing to migrate.
+     * @throws SQLException if the schema cannot be read.
+     */
+    private static boolean hasRowKey(Statement stmt) throws SQLException {
+        boolean found = false;
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(bracelets)")) {
+            while (rs.next()) {
+                if (rs.getString("name").equals("row_key")) {
+                    return true;
+                }
+                found = true;
             }
+        }
+        return !found; // No columns means no table yet
+    }
+
+    /**
+     * Migrates a bracelets table created before row_key existed: SQLite cannot add a primary key
+     * column in place, so the rows are copied into a new table in one transaction. The old search
+     * index pointed at the implicit rowids, so it is dropped and rebuilt by {@link #createSearchIndex}.
+     * @param connection The connection to migrate on.
+     * @param stmt       A statement on that connection.
+     * @throws SQLException if the migration fails; it is then rolled back.
+     */
+    private static void addRowKey(Connection connection, Statement stmt) throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            stmt.execute("DROP TABLE IF EXISTS bracelets_fts;");
+            stmt.execute(createBraceletsSql("bracelets_migrating"));
+            stmt.execute("INSERT INTO bracelets_migrating(id, description, quantity, price, status) " +
+                    "SELECT id, description, quantity, price, status FROM bracelets ORDER BY rowid;");
+            stmt.execute("DROP TABLE bracelets;"); // Its index and triggers go with it and are recreated
+            stmt.execute("ALTER TABLE bracelets_migrating RENAME TO bracelets;");
+            connection.commit();
         } catch (SQLException e) {
-            System.err.println("Error creating table: " + e.getMessage());
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
         }
-        return false;
+    }
+
+    /**
+     * Builds an InventoryItem from the current row of a ResultSet.
+     * @param rs A ResultSet positioned on a row of the 'bracelets' table.
+     * @return The bracelet object for that row.
+     * @throws SQLException if a column cannot be read.
+     */
+    private InventoryItem mapBracelet(ResultSet rs) throws SQLException {
+        return new InventoryItem(
+                rs.getString("id"),
+                rs.getString("description"),
+                rs.getInt("quantity"),
+                rs.getDouble("price"),
+                rs.getString("status")
+        );
     }
 
     /**
@@ -87,42 +274,177 @@ public class DatabaseManager {
      * @param bracelet The bracelet object which is inserted.
      * @return true if insertion is successful, false otherwise.
      */
-    public boolean insertBracelet(Bracelet bracelet) {
+    public boolean insertBracelet(InventoryItem bracelet) {
         String sql = "INSERT INTO bracelets(id, description, quantity, price, status) VALUES(?,?,?,?,?)";
-        try (Connection conn = connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, bracelet.getId());
-            pstmt.setString(2, bracelet.getDescription());
-            pstmt.setInt(3, bracelet.getQuantity());
-            pstmt.setDouble(4, bracelet.getPrice());
-            pstmt.setString(5, bracelet.getStatus());
-            pstmt.executeUpdate();
-            return true;
+        try {
+            return write(conn -> {
+                PreparedStatement pstmt = conn.prepare(sql); // Cached per connection, not closed here
+                pstmt.setString(1, bracelet.getId());
+                pstmt.setString(2, bracelet.getDescription());
+                pstmt.setInt(3, bracelet.getQuantity());
+                pstmt.setDouble(4, bracelet.getPrice());
+                pstmt.setString(5, bracelet.getStatus());
+                pstmt.executeUpdate();
+                return true;
+            });
         } catch (SQLException e) {
             System.err.println("Error inserting bracelet " + bracelet.getId() + ": " + e.getMessage());
+        } finally {
+            itemCache.invalidate(bracelet.getId()); // Drop a cached "does not exist" entry
         }
         return false;
     }
 
+    /**
+     * Inserts a bracelet unless its ID is already taken, in a single statement.
+     * The primary key decides uniqueness, so there is no separate existence check to race with.
+     * @param bracelet The bracelet to insert.
+     * @return INSERTED, DUPLICATE if the ID already exists, INVALID if the row breaks the table's
+     * constraints, or FAILED on a database error.
+     */
+    public InsertOutcome insertBraceletIfAbsent(InventoryItem bracelet) {
+        if (!isInsertable(bracelet)) {
+            return InsertOutcome.INVALID;
+        }
+        String sql = "INSERT INTO bracelets(id, description, quantity, price, status) VALUES(?,?,?,?,?) " +
+                "ON CONFLICT(id) DO NOTHING";
+        try {
+            return write(conn -> {
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setString(1, bracelet.getId());
+                pstmt.setString(2, bracelet.getDescription());
+                pstmt.setInt(3, bracelet.getQuantity());
+                pstmt.setDouble(4, bracelet.getPrice());
+                pstmt.setString(5, bracelet.getStatus());
+                return pstmt.executeUpdate() == 0 ? InsertOutcome.DUPLICATE : InsertOutcome.INSERTED;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error inserting bracelet " + bracelet.getId() + ": " + e.getMessage());
+        } finally {
+            itemCache.invalidate(bracelet.getId());
+        }
+        return InsertOutcome.FAILED;
+    }
+
+    /**
+     * Inserts many bracelets in a single transaction using the configured batch chunk size.
+     * @param bracelets The bracelets to insert.
+     * @return One outcome per bracelet, in iteration order.
+     * @see #insertBracelets(Collection, int)
+     */
+    public List<InsertOutcome> insertBracelets(Collection<InventoryItem> bracelets) {
+        return insertBracelets(bracelets, config.getBatchChunkSize());
+    }
+
+    /**
+     * Inserts many bracelets in a single transaction. Rows are sent to SQLite with
+     * addBatch/executeBatch in chunks of {@code chunkSize}, and the whole load is committed once,
+     * so a large catalog costs one fsync instead of one per row. Existing IDs are skipped rather
+     * than aborting the load, and invalid rows never reach the database.
+     * If a database error occurs the transaction is rolled back and every valid row is reported
+     * as {@link InsertOutcome#FAILED}.
+     * @param bracelets The bracelets to insert.
+     * @param chunkSize The number of rows per executeBatch call.
+     * @return One outcome per bracelet, in iteration order.
+     */
+    public List<InsertOutcome> insertBracelets(Collection<InventoryItem> bracelets, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1.");
+        }
+        // OR IGNORE turns a primary key conflict into an update count of 0 instead of an error
+        String sql = "INSERT OR IGNORE INTO bracelets(id, description, quantity, price, status) VALUES(?,?,?,?,?)";
+        List<InsertOutcome> outcomes = new ArrayList<>(bracelets.size());
+        int[] pendingRows = new int[chunkSize]; // Positions in 'outcomes' of the rows in the current chunk
+
+        try (PooledConnection conn = connect()) {
+            Connection connection = conn.getConnection();
+            PreparedStatement pstmt = conn.prepare(sql);
+            connection.setAutoCommit(false);
+            try {
+                int pending = 0;
+                for (InventoryItem bracelet : bracelets) {
+                    if (!isInsertable(bracelet)) {
+                        outcomes.add(InsertOutcome.INVALID);
+                        continue;
+                    }
+                    pendingRows[pending++] = outcomes.size();
+                    outcomes.add(null); // Filled in once the chunk has executed
+                    pstmt.setString(1, bracelet.getId());
+                    pstmt.setString(2, bracelet.getDescription());
+                    pstmt.setInt(3, bracelet.getQuantity());
+                    pstmt.setDouble(4, bracelet.getPrice());
+                    pstmt.setString(5, bracelet.getStatus());
+                    pstmt.addBatch();
+                    if (pending == chunkSize) {
+                        executeChunk(pstmt, pendingRows, pending, outcomes);
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    executeChunk(pstmt, pendingRows, pending, outcomes);
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                pstmt.clearBatch(); // The statement is cached, so don't leave rows queued on it
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error inserting bracelets in bulk: " + e.getMessage());
+            outcomes.replaceAll(outcome -> outcome == InsertOutcome.INVALID ? outcome : InsertOutcome.FAILED);
+            while (outcomes.size() < bracelets.size()) {
+                outcomes.add(InsertOutcome.FAILED);
+            }
+        } finally {
+            itemCache.invalidateAll();
+        }
+        return outcomes;
+    }
+
+    /**
+     * Runs the queued batch and records an outcome for each row in it.
+     * @param pstmt       The statement holding the batch.
+     * @param pendingRows Positions in {@code outcomes} of the queued rows.
+     * @param pending     Number of queued rows.
+     * @param outcomes    The outcome list to fill in.
+     * @throws SQLException if the batch fails.
+     */
+    private void executeChunk(PreparedStatement pstmt, int[] pendingRows, int pending,
+                              List<InsertOutcome> outcomes) throws SQLException {
+        int[] counts = pstmt.executeBatch();
+        for (int i = 0; i < pending; i++) {
+            outcomes.set(pendingRows[i], counts[i] == 0 ? InsertOutcome.DUPLICATE : InsertOutcome.INSERTED);
+        }
+    }
+
+    /**
+     * Checks that a bracelet satisfies the table's constraints before it is batched.
+     * @param bracelet The bracelet to check.
+     * @return true if the row can be inserted, false otherwise.
+     */
+    private boolean isInsertable(InventoryItem bracelet) {
+        return bracelet != null
+                && bracelet.getId() != null && !bracelet.getId().trim().isEmpty()
+                && bracelet.getDescription() != null && !bracelet.getDescription().trim().isEmpty()
+                && bracelet.getStatus() != null
+                && bracelet.getQuantity() >= 0
+                && bracelet.getPrice() >= 0;
+    }
+
     /**
      * Selects all bracelets from the database.
      * @return A List of bracelet objects, or an empty list if no bracelets found or an error occurs.
      */
-    public List<Bracelet> selectAllBracelets() {
-        List<Bracelet> bracelets = new ArrayList<>();
+    public List<InventoryItem> selectAllBracelets() {
+        List<InventoryItem> bracelets = new ArrayList<>();
         String sql = "SELECT id, description, quantity, price, status FROM bracelets";
-        try (Connection conn = connect();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (PooledConnection conn = connect();
+             ResultSet rs = conn.prepare(sql).executeQuery()) {
 
             while (rs.next()) {
-                bracelets.add(new Bracelet(
-                        rs.getString("id"),
-                        rs.getString("description"),
-                        rs.getInt("quantity"),
-                        rs.getDouble("price"),
-                        rs.getString("status")
-                ));
+                bracelets.add(mapBracelet(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error selecting all bracelets: " + e.getMessage());
@@ -130,28 +452,366 @@ public class DatabaseManager {
         return bracelets;
     }
 
+    /**
+     * Streams all bracelets using the configured fetch size.
+     * @return A lazy stream of bracelets that must be closed after use.
+     * @see #streamAllBracelets(int)
+     */
+    public Stream<InventoryItem> streamAllBracelets() {
+        return streamAllBracelets(config.getFetchSize());
+    }
+
+    /**
+     * Streams all bracelets from the database one row at a time instead of building a list.
+     * The ResultSet and its pooled connection stay open while the stream is consumed, so the
+     * stream must be closed when done, ideally with try-with-resources:
+     * <pre>{@code
+     * try (Stream<InventoryItem> rows = dbManager.streamAllBracelets(500)) {
+     *     rows.forEach(...);
+     * }
+     * }</pre>
+     * If a database error occurs mid-read, it is logged and the stream simply ends.
+     * @param fetchSize The number of rows the driver should fetch at a time.
+     * @return A lazy stream of bracelets, or an empty stream if the query could not be started.
+     */
+    public Stream<InventoryItem> streamAllBracelets(int fetchSize) {
+        String sql = "SELECT id, description, quantity, price, status FROM bracelets";
+        PooledConnection conn = null;
+        ResultSet rs;
+        try {
+            conn = connect();
+            PreparedStatement pstmt = conn.prepare(sql);
+            pstmt.setFetchSize(fetchSize);
+            rs = pstmt.executeQuery();
+        } catch (SQLException e) {
+            System.err.println("Error streaming bracelets: " + e.getMessage());
+            if (conn != null) {
+                conn.close();
+            }
+            return Stream.empty();
+        }
+
+        ResultSet cursor = rs;
+        PooledConnection owner = conn;
+        Spliterator<InventoryItem> rows = new Spliterators.AbstractSpliterator<InventoryItem>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super InventoryItem> action) {
+                try {
+                    if (!cursor.next()) {
+                        return false;
+                    }
+                    action.accept(mapBracelet(cursor));
+                    return true;
+                } catch (SQLException e) {
+                    System.err.println("Error reading streamed bracelet: " + e.getMessage());
+                    return false;
+                }
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(() -> {
+            try {
+                cursor.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing bracelet stream: " + e.getMessage());
+            } finally {
+                owner.close(); // Hand the connection back to the pool
+            }
+        });
+    }
+
+    /**
+     * Visits every bracelet in the database in constant memory, closing the cursor afterwards, and
+     * reports a failed query or read instead of logging it and stopping early like {@link #forEachBracelet}.
+     * Used where a partial read must not pass for the whole table, such as exports.
+     * @param visitor Called once for each bracelet.
+     * @return The number of bracelets visited.
+     * @throws SQLException if the bracelets could not all be read.
+     */
+    public long forEachBraceletOrThrow(Consumer<? super InventoryItem> visitor) throws SQLException {
+        String sql = "SELECT id, description, quantity, price, status FROM bracelets";
+        long count = 0;
+        try (PooledConnection conn = connect()) {
+            PreparedStatement pstmt = conn.prepare(sql);
+            pstmt.setFetchSize(config.getFetchSize());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    visitor.accept(mapBracelet(rs));
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Visits every bracelet in the database in constant memory, closing the cursor afterwards.
+     * If a database error occurs, it is logged and the visit stops early.
+     * @param visitor Called once for each bracelet.
+     * @return The number of bracelets visited.
+     */
+    public long forEachBracelet(Consumer<? super InventoryItem> visitor) {
+        long[] count = {0};
+        try {
+            forEachBraceletOrThrow(bracelet -> {
+                visitor.accept(bracelet);
+                count[0]++;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error reading bracelets: " + e.getMessage());
+        }
+        return count[0];
+    }
+
+    /**
+     * Creates the full-text index over descriptions used by {@link #searchBracelets}: an FTS5 table
+     * that reads its text from the bracelets table (so descriptions are not stored twice), kept in
+     * sync by triggers on insert, delete and description updates. Index entries are keyed by
+     * row_key, which stays the same through a VACUUM. A database created before the index existed
+     * gets it built from the current rows.
+     * @param stmt A statement on the connection to use.
+     * @throws SQLException if the index cannot be created.
+     */
+    private static void createSearchIndex(Statement stmt) throws SQLException {
+        boolean exists;
+        try (ResultSet rs = stmt.executeQuery(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'bracelets_fts'")) {
+            exists = rs.next();
+        }
+        stmt.execute("CREATE VIRTUAL TABLE IF NOT EXISTS bracelets_fts USING fts5(" +
+                "description, content='bracelets', content_rowid='row_key', " +
+                "tokenize='unicode61 remove_diacritics 2', prefix='2 3');");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS bracelets_fts_insert AFTER INSERT ON bracelets BEGIN " +
+                "INSERT INTO bracelets_fts(rowid, description) VALUES (new.row_key, new.description); END;");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS bracelets_fts_delete AFTER DELETE ON bracelets BEGIN " +
+                "INSERT INTO bracelets_fts(bracelets_fts, rowid, description) VALUES ('delete', old.row_key, old.description); END;");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS bracelets_fts_update AFTER UPDATE OF description ON bracelets BEGIN " +
+                "INSERT INTO bracelets_fts(bracelets_fts, rowid, description) VALUES ('delete', old.row_key, old.description); " +
+                "INSERT INTO bracelets_fts(rowid, description) VALUES (new.row_key, new.description); END;");
+        if (!exists) {
+            stmt.execute("INSERT INTO bracelets_fts(bracelets_fts) VALUES ('rebuild');");
+        }
+    }
+
+    /**
+     * Searches bracelet descriptions with the full-text index, best matches first (BM25 ranking).
+     * Every word of the query must appear in the description, and the last letters of each word
+     * may be missing, so "blu bea" finds "Blue beaded anklet". Case, accents and punctuation are ignored.
+     * @param query The words to search for.
+     * @param limit The maximum number of results.
+     * @return The matching bracelets, best match first, or an empty list if the query has no words,
+     *         nothing matches or an error occurs.
+     */
+    public List<InventoryItem> searchBracelets(String query, int limit) {
+        List<InventoryItem> bracelets = new ArrayList<>();
+        String match = toMatchExpression(query);
+        if (match.isEmpty() || limit < 1) {
+            return bracelets;
+        }
+        // The subquery lets FTS5 rank and cut off the matches before any bracelet rows are read
+        String sql = "SELECT b.id, b.description, b.quantity, b.price, b.status FROM bracelets b " +
+                "JOIN (SELECT rowid, rank FROM bracelets_fts WHERE bracelets_fts MATCH ? ORDER BY rank LIMIT ?) f " +
+                "ON b.row_key = f.rowid ORDER BY f.rank";
+        try (PooledConnection conn = connect()) {
+            PreparedStatement pstmt = conn.prepare(sql);
+            pstmt.setString(1, match);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    bracelets.add(mapBracelet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error searching bracelets for '" + query + "': " + e.getMessage());
+        }
+        return bracelets;
+    }
+
+    /**
+     * Turns free text into an FTS5 query: each word becomes a quoted prefix term, and the terms are
+     * implicitly ANDed. Quoting keeps user input such as "AND" or "-" from being read as query syntax.
+     * @param query The text typed by the user.
+     * @return The MATCH expression, or an empty string if the text contains no words.
+     */
+    static String toMatchExpression(String query) {
+        if (query == null) {
+            return "";
+        }
+        StringBuilder match = new StringBuilder();
+        int i = 0;
+        while (i < query.length()) {
+            while (i < query.length() && !Character.isLetterOrDigit(query.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < query.length() && Character.isLetterOrDigit(query.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                if (match.length() > 0) {
+                    match.append(' ');
+                }
+                match.append('"').append(query, start, i).append("\"*");
+            }
+        }
+        return match.toString();
+    }
+
+    /**
+     * Selects the bracelets whose quantity is below a threshold, lowest quantity first.
+     * The filter and sort are done by SQLite using the quantity index, so only matching
+     * rows are read.
+     * @param threshold Bracelets with a quantity strictly below this value are returned.
+     * @param limit The maximum number of rows to return, or 0 for no limit.
+     * @return A List of matching bracelets ordered by quantity (then ID), or an empty list if none or an error occurs.
+     */
+    public List<InventoryItem> selectBelowQuantity(int threshold, int limit) {
+        List<InventoryItem> bracelets = new ArrayList<>();
+        String sql = "SELECT id, description, quantity, price, status FROM bracelets " +
+                "WHERE quantity < ? ORDER BY quantity, id LIMIT ?";
+        try (PooledConnection conn = connect()) {
+            PreparedStatement pstmt = conn.prepare(sql);
+            pstmt.setInt(1, threshold);
+            pstmt.setInt(2, limit > 0 ? limit : -1); // A negative LIMIT means no limit in SQLite
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    bracelets.add(mapBracelet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error selecting bracelets below quantity " + threshold + ": " + e.getMessage());
+        }
+        return bracelets;
+    }
+
+    /**
+     * Selects one page of bracelets using keyset (seek) pagination.
+     * Instead of OFFSET, which makes SQLite walk past every skipped row, each page starts
+     * right after the last row of the previous page, so reading deep into the catalog costs
+     * the same as reading the first page.
+     * When sorting by quantity, the row named by {@code afterId} is used to look up where the
+     * previous page ended; if that bracelet has since been deleted, the returned page is empty
+     * and the caller should restart from the first page.
+     * @param afterId  The ID of the last bracelet on the previous page, or null for the first page.
+     * @param pageSize The maximum number of bracelets to return.
+     * @param sortKey  The order of the pages.
+     * @return The bracelets on the requested page, or an empty list if there are none or an error occurs.
+     */
+    public List<InventoryItem> selectPage(String afterId, int pageSize, SortKey sortKey) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1.");
+        }
+        String columns = "SELECT id, description, quantity, price, status FROM bracelets ";
+        String sql;
+        if (sortKey == SortKey.QUANTITY) {
+            sql = afterId == null
+                    ? columns + "ORDER BY quantity, id LIMIT ?"
+                    : columns + "WHERE (quantity, id) > ((SELECT quantity FROM bracelets WHERE id = ?), ?) " +
+                      "ORDER BY quantity, id LIMIT ?";
+        } else {
+            sql = afterId == null
+                    ? columns + "ORDER BY id LIMIT ?"
+                    : columns + "WHERE id > ? ORDER BY id LIMIT ?";
+        }
+
+        List<InventoryItem> bracelets = new ArrayList<>(pageSize);
+        try (PooledConnection conn = connect()) {
+            PreparedStatement pstmt = conn.prepare(sql);
+            int index = 1;
+            if (afterId != null) {
+                pstmt.setString(index++, afterId);
+                if (sortKey == SortKey.QUANTITY) {
+                    pstmt.setString(index++, afterId);
+                }
+            }
+            pstmt.setInt(index, pageSize);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    bracelets.add(mapBracelet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error selecting page after ID " + afterId + ": " + e.getMessage());
+        }
+        return bracelets;
+    }
+
+    /**
+     * Selects the page of bracelets starting at a row position, for callers that jump to
+     * an arbitrary place (such as a scrollbar drag) and so have no previous page to continue from.
+     * SQLite still steps over the skipped rows, so prefer {@link #selectPage} for sequential reads.
+     * @param offset   The position of the first row to return, counting from 0.
+     * @param pageSize The maximum number of bracelets to return.
+     * @param sortKey  The order of the rows.
+     * @return The bracelets on the page, or an empty list if there are none or an error occurs.
+     */
+    public List<InventoryItem> selectPageAt(int offset, int pageSize, SortKey sortKey) {
+        if (pageSize < 1 || offset < 0) {
+            throw new IllegalArgumentException("Page size must be at least 1 and offset at least 0.");
+        }
+        String sql = "SELECT id, description, quantity, price, status FROM bracelets " +
+                (sortKey == SortKey.QUANTITY ? "ORDER BY quantity, id" : "ORDER BY id") + " LIMIT ? OFFSET ?";
+        List<InventoryItem> bracelets = new ArrayList<>(pageSize);
+        try (PooledConnection conn = connect()) {
+            PreparedStatement pstmt = conn.prepare(sql);
+            pstmt.setInt(1, pageSize);
+            pstmt.setInt(2, offset);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    bracelets.add(mapBracelet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error selecting page at offset " + offset + ": " + e.getMessage());
+        }
+        return bracelets;
+    }
+
+    /**
+     * Counts the bracelets in the database.
+     * @return The number of bracelets, or -1 if an error occurs.
+     */
+    public int countBracelets() {
+        String sql = "SELECT COUNT(*) FROM bracelets";
+        try (PooledConnection conn = connect();
+             ResultSet rs = conn.prepare(sql).executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            System.err.println("Error counting bracelets: " + e.getMessage());
+        }
+        return -1;
+    }
+
     /**
      * Selects a single bracelet by its ID.
      * @param id The ID of the bracelet to retrieve.
      * @return The bracelet object if found, null otherwise.
      */
-    public Bracelet selectBraceletById(String id) {
+    public InventoryItem selectBraceletById(String id) {
+        try {
+            return itemCache.get(id, this::loadBraceletById);
+        } catch (SQLException e) {
+            System.err.println("Error selecting bracelet by ID " + id + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Reads a single bracelet by its ID from the database, bypassing the cache.
+     * @param id The ID of the bracelet to retrieve.
+     * @return The bracelet object if found, null otherwise.
+     * @throws SQLException if the database could not be read.
+     */
+    private InventoryItem loadBraceletById(String id) throws SQLException {
         String sql = "SELECT id, description, quantity, price, status FROM bracelets WHERE id = ?";
-        try (Connection conn = connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PooledConnection conn = connect()) {
+            PreparedStatement pstmt = conn.prepare(sql);
             pstmt.setString(1, id);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return new Bracelet(
-                        rs.getString("id"),
-                        rs.getString("description"),
-                        rs.getInt("quantity"),
-                        rs.getDouble("price"),
-                        rs.getString("status")
-                );
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapBracelet(rs);
+                }
             }
-        } catch (SQLException e) {
-            System.err.println("Error selecting bracelet by ID " + id + ": " + e.getMessage());
         }
         return null;
     }
@@ -161,23 +821,211 @@ public class DatabaseManager {
      * @param bracelet The bracelet object with updated values.
      * @return true if update is successful, false otherwise.
      */
-    public boolean updateBracelet(Bracelet bracelet) {
+    public boolean updateBracelet(InventoryItem bracelet) {
         String sql = "UPDATE bracelets SET description = ?, quantity = ?, price = ?, status = ? WHERE id = ?";
-        try (Connection conn = connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, bracelet.getDescription());
-            pstmt.setInt(2, bracelet.getQuantity());
-            pstmt.setDouble(3, bracelet.getPrice());
-            pstmt.setString(4, bracelet.getStatus());
-            pstmt.setString(5, bracelet.getId());
-            pstmt.executeUpdate();
-            return true;
+        try {
+            return write(conn -> {
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setString(1, bracelet.getDescription());
+                pstmt.setInt(2, bracelet.getQuantity());
+                pstmt.setDouble(3, bracelet.getPrice());
+                pstmt.setString(4, bracelet.getStatus());
+                pstmt.setString(5, bracelet.getId());
+                pstmt.executeUpdate();
+                return true;
+            });
         } catch (SQLException e) {
             System.err.println("Error updating bracelet " + bracelet.getId() + ": " + e.getMessage());
+        } finally {
+            itemCache.invalidate(bracelet.getId());
         }
         return false;
     }
 
+    /**
+     * Changes any combination of a bracelet's quantity, price and status in a single UPDATE
+     * and returns the row as stored before and afterwards. Null arguments leave that column unchanged.
+     * The previous row is read in the same write task, just before the UPDATE (RETURNING only
+     * sees the new values), so callers never need a separate lookup.
+     * When the quantity changes and no status is given, the status follows the quantity the same way
+     * InventoryManager.updateBracelet does: 0 sets 'Out of Stock', and going above 0 from
+     * 'Out of Stock' sets 'In Stock'. An explicit status always wins.
+     * @param id       The ID of the bracelet to change.
+     * @param quantity The new quantity, or null.
+     * @param price    The new price, or null.
+     * @param status   The new status, or null.
+     * @return The bracelet before and after the change (both null if the ID does not exist),
+     * or null if an error occurs.
+     */
+    public PatchedBracelet patchBracelet(String id, Integer quantity, Double price, String status) {
+        String selectSql = "SELECT id, description, quantity, price, status FROM bracelets WHERE id = ?";
+        String sql = "UPDATE bracelets SET quantity = COALESCE(?, quantity), " +
+                "price = COALESCE(?, price), " +
+                "status = CASE " +
+                "WHEN ? IS NOT NULL THEN ? " +
+                "WHEN ? IS NULL THEN status " +
+                "WHEN ? = 0 THEN 'Out of Stock' " +
+                "WHEN lower(status) = 'out of stock' THEN 'In Stock' " +
+                "ELSE status END " +
+                "WHERE id = ? " +
+                "RETURNING id, description, quantity, price, status";
+        long ticket = itemCache.beginWrite();
+        PatchedBracelet patched = null;
+        try {
+            patched = write(conn -> {
+                PreparedStatement select = conn.prepare(selectSql);
+                select.setString(1, id);
+                InventoryItem previous;
+                try (ResultSet rs = select.executeQuery()) {
+                    if (!rs.next()) {
+                        return new PatchedBracelet(null, null);
+                    }
+                    previous = mapBracelet(rs);
+                }
+                PreparedStatement pstmt = conn.prepare(sql);
+                setNullableInt(pstmt, 1, quantity);
+                if (price == null) {
+                    pstmt.setNull(2, Types.REAL);
+                } else {
+                    pstmt.setDouble(2, price);
+                }
+                pstmt.setString(3, status);
+                pstmt.setString(4, status);
+                setNullableInt(pstmt, 5, quantity);
+                setNullableInt(pstmt, 6, quantity);
+                pstmt.setString(7, id);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return rs.next() ? new PatchedBracelet(previous, mapBracelet(rs)) : new PatchedBracelet(null, null);
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Error patching bracelet " + id + ": " + e.getMessage());
+        } finally {
+            // The returned row makes the next lookup a cache hit
+            itemCache.endWrite(id, patched == null ? null : patched.updated(), ticket);
+        }
+        return patched;
+    }
+
+    private static void setNullableInt(PreparedStatement pstmt, int index, Integer value) throws SQLException {
+        if (value == null) {
+            pstmt.setNull(index, Types.INTEGER);
+        } else {
+            pstmt.setInt(index, value);
+        }
+    }
+
+    /**
+     * Atomically adds {@code delta} to a bracelet's quantity in a single statement.
+     * The status follows the quantity the same way InventoryManager.updateBracelet does:
+     * reaching 0 sets 'Out of Stock', and going above 0 from 'Out of Stock' sets 'In Stock'.
+     * Because the check and the write happen in one UPDATE, two terminals selling the same item
+     * cannot overwrite each other's changes, and the quantity can never become negative.
+     * @param id    The ID of the bracelet to adjust.
+     * @param delta The amount to add (negative for a sale).
+     * @return The updated bracelet, or null if the ID does not exist, the result would be negative,
+     * or an error occurs.
+     */
+    public InventoryItem adjustQuantity(String id, int delta) {
+        String sql = "UPDATE bracelets SET quantity = quantity + ?, " +
+                "status = CASE " +
+                "WHEN quantity + ? = 0 THEN 'Out of Stock' " +
+                "WHEN quantity + ? > 0 AND lower(status) = 'out of stock' THEN 'In Stock' " +
+                "ELSE status END " +
+                "WHERE id = ? AND quantity + ? >= 0 " +
+                "RETURNING id, description, quantity, price, status";
+        long ticket = itemCache.beginWrite();
+        InventoryItem adjusted = null;
+        try {
+            adjusted = write(conn -> {
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setInt(1, delta);
+                pstmt.setInt(2, delta);
+                pstmt.setInt(3, delta);
+                pstmt.setString(4, id);
+                pstmt.setInt(5, delta);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return rs.next() ? mapBracelet(rs) : null;
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Error adjusting quantity for bracelet " + id + ": " + e.getMessage());
+        } finally {
+            itemCache.endWrite(id, adjusted, ticket);
+        }
+        return adjusted;
+    }
+
+    /**
+     * Applies many coalesced changes in one transaction with a single batched UPDATE statement,
+     * so a burst of edits costs one commit (and one fsync) instead of one per edit.
+     * Quantity changes are added to the stored value with the same guard as {@link #adjustQuantity}:
+     * a change that would leave the stored quantity negative (because the stock was sold elsewhere
+     * since the change was queued) is skipped, as is a change to a bracelet that no longer exists.
+     * Price and status replace the stored value when given; otherwise the status follows the quantity.
+     * Either every other change is applied or, on error, none is.
+     * @param changes The changes to apply.
+     * @return The IDs of the skipped changes (empty if all were applied), or null if the transaction
+     * was rolled back.
+     */
+    public List<String> applyStockChanges(Collection<StockChange> changes) {
+        if (changes.isEmpty()) {
+            return List.of();
+        }
+        String sql = "UPDATE bracelets SET quantity = quantity + ?, price = COALESCE(?, price), " +
+                "status = CASE " +
+                "WHEN ? IS NOT NULL THEN ? " +
+                "WHEN quantity + ? = 0 THEN 'Out of Stock' " +
+                "WHEN quantity + ? > 0 AND lower(status) = 'out of stock' THEN 'In Stock' " +
+                "ELSE status END " +
+                "WHERE id = ? AND quantity + ? >= 0";
+        try (PooledConnection conn = connect()) {
+            Connection connection = conn.getConnection();
+            PreparedStatement pstmt = conn.prepare(sql);
+            connection.setAutoCommit(false);
+            try {
+                List<StockChange> batch = new ArrayList<>(changes);
+                for (StockChange change : batch) {
+                    pstmt.setInt(1, change.quantityDelta());
+                    if (change.price() == null) {
+                        pstmt.setNull(2, Types.REAL);
+                    } else {
+                        pstmt.setDouble(2, change.price());
+                    }
+                    pstmt.setString(3, change.status());
+                    pstmt.setString(4, change.status());
+                    pstmt.setInt(5, change.quantityDelta());
+                    pstmt.setInt(6, change.quantityDelta());
+                    pstmt.setString(7, change.id());
+                    pstmt.setInt(8, change.quantityDelta());
+                    pstmt.addBatch();
+                }
+                int[] counts = pstmt.executeBatch();
+                connection.commit();
+                List<String> skipped = new ArrayList<>();
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 0) {
+                        skipped.add(batch.get(i).id());
+                    }
+                }
+                return skipped;
+            } catch (SQLException e) {
+                pstmt.clearBatch(); // The statement is cached, so don't leave rows queued on it
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error applying " + changes.size() + " queued stock changes: " + e.getMessage());
+        } finally {
+            for (StockChange change : changes) {
+                itemCache.invalidate(change.id());
+            }
+        }
+        return null;
+    }
+
     /**
      * Deletes a bracelet from the database by its ID.
      * @param id The ID of the bracelet to delete.
@@ -185,30 +1033,60 @@ public class DatabaseManager {
      */
     public boolean deleteBracelet(String id) {
         String sql = "DELETE FROM bracelets WHERE id = ?";
-        try (Connection conn = connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, id);
-            pstmt.executeUpdate();
-            return true;
+        try {
+            return write(conn -> {
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setString(1, id);
+                pstmt.executeUpdate();
+                return true;
+            });
         } catch (SQLException e) {
             System.err.println("Error deleting bracelet " + id + ": " + e.getMessage());
+        } finally {
+            itemCache.invalidate(id);
         }
         return false;
     }
 
+    /**
+     * Deletes a bracelet by its ID and reports whether there was one to delete, in a single statement.
+     * @param id The ID of the bracelet to delete.
+     * @return The number of rows deleted (1, or 0 if the ID does not exist), or -1 if an error occurs.
+     */
+    public int deleteBraceletIfExists(String id) {
+        String sql = "DELETE FROM bracelets WHERE id = ?";
+        try {
+            return write(conn -> {
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setString(1, id);
+                return pstmt.executeUpdate();
+            });
+        } catch (SQLException e) {
+            System.err.println("Error deleting bracelet " + id + ": " + e.getMessage());
+        } finally {
+            itemCache.invalidate(id);
+        }
+        return -1;
+    }
+
     /**
      * Checks if a bracelet with the given ID already exists in the database.
+     * When the lookup cache is enabled the answer (including "does not exist") comes from it.
      * @param id The ID to check.
      * @return true if the ID exists, if not then return false.
      */
     public boolean doesIdExist(String id) {
+        if (itemCache.isEnabled()) {
+            return selectBraceletById(id) != null;
+        }
         String sql = "SELECT COUNT(*) FROM bracelets WHERE id = ?";
-        try (Connection conn = connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PooledConnection conn = connect()) {
+            PreparedStatement pstmt = conn.prepare(sql);
             pstmt.setString(1, id);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1) > 0;
+                }
             }
         } catch (SQLException e) {
             System.err.println("Error checking ID existence for " + id + ": " + e.getMessage());
@@ -0,0 +1,28 @@
+package com.cececandicorner.inventory;
+
+import java.nio.file.Path;
+
+/**
+ * ExportResult.java
+ * The summary of an inventory export by {@link InventoryExporter}.
+ * @param file          The file that was written.
+ * @param rows          Bracelets written.
+ * @param bytes         Size of the written file in bytes (compressed size for gzip exports).
+ * @param elapsedMillis Wall-clock time taken by the export, in milliseconds.
+ */
+public record ExportResult(Path file, long rows, long bytes, long elapsedMillis) {
+
+    /**
+     * Calculates the export throughput.
+     * @return Rows written per second, or 0.0 if no time was measured.
+     */
+    public double rowsPerSecond() {
+        return elapsedMillis == 0 ? 0.0 : rows * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Exported %d rows to %s (%d bytes) in %.1f s (%.0f rows/sec).",
+                rows, file, bytes, elapsedMillis / 1000.0, rowsPerSecond());
+    }
+}
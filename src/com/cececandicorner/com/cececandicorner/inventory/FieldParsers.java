@@ -0,0 +1,121 @@
+package com.cececandicorner.inventory;
+
+/**
+ * FieldParsers.java
+ * Allocation-free parsers for the numeric bracelet fields. They read the characters in place and
+ * report bad input with a sentinel (-1) instead of throwing NumberFormatException, which matters
+ * when a supplier file has thousands of bad rows: building and unwinding an exception per row costs
+ * far more than the parse itself. Both InventoryManager's validators and the CSV importer use them.
+ */
+final class FieldParsers {
+
+    /** Plain decimals with more significant digits than this are handed to Double.parseDouble. */
+    private static final int MAX_FAST_DIGITS = 15;
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    private FieldParsers() {
+    }
+
+    /**
+     * Parses a whole string as a non-negative integer. See {@link #parseNonNegativeInt(CharSequence, int, int)}.
+     * @param text The text to parse, may be null.
+     * @return The value, or -1 if the text is not a non-negative integer.
+     */
+    static int parseNonNegativeInt(CharSequence text) {
+        return text == null ? -1 : parseNonNegativeInt(text, 0, text.length());
+    }
+
+    /**
+     * Parses a non-negative integer: an optional '+' followed by decimal digits, nothing else
+     * (the same strings Integer.parseInt accepts, minus negative numbers).
+     * @param text  The characters to read.
+     * @param start Index of the first character.
+     * @param end   Index after the last character.
+     * @return The value, or -1 if the range is not a non-negative integer or does not fit in an int.
+     */
+    static int parseNonNegativeInt(CharSequence text, int start, int end) {
+        if (start < end && text.charAt(start) == '+') {
+            start++;
+        }
+        if (start >= end) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+            if (value > Integer.MAX_VALUE) {
+                return -1;
+            }
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses a whole string as a non-negative decimal. See {@link #parseNonNegativeDecimal(CharSequence, int, int)}.
+     * @param text The text to parse, may be null.
+     * @return The value, or -1.0 if the text is not a non-negative decimal.
+     */
+    static double parseNonNegativeDecimal(CharSequence text) {
+        return text == null ? -1.0 : parseNonNegativeDecimal(text, 0, text.length());
+    }
+
+    /**
+     * Parses a non-negative decimal such as "12", "12.5" or ".50", ignoring surrounding whitespace.
+     * Exponents, hexadecimal, NaN and Infinity are rejected: they are never valid prices.
+     * @param text  The characters to read.
+     * @param start Index of the first character.
+     * @param end   Index after the last character.
+     * @return The value, or -1.0 if the range is not a non-negative decimal.
+     */
+    static double parseNonNegativeDecimal(CharSequence text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start < end && text.charAt(start) == '+') {
+            start++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int significantDigits = 0;
+        int fractionDigits = 0;
+        boolean seenPoint = false;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '.' && !seenPoint) {
+                seenPoint = true;
+                continue;
+            }
+            int digit = c - '0';
+            if (digit < 0 || digit > 9) {
+                return -1.0;
+            }
+            digits++;
+            if (mantissa != 0 || digit != 0) {
+                significantDigits++;
+            }
+            mantissa = mantissa * 10 + digit; // Only trusted while significantDigits <= MAX_FAST_DIGITS
+            if (seenPoint) {
+                fractionDigits++;
+            }
+        }
+        if (digits == 0) {
+            return -1.0;
+        }
+        if (significantDigits > MAX_FAST_DIGITS || fractionDigits > MAX_FAST_DIGITS) {
+            // Already known to be well formed, so this cannot throw
+            return Double.parseDouble(text.subSequence(start, end).toString());
+        }
+        // Both operands are exact doubles, so the single division is correctly rounded
+        return mantissa / POWERS_OF_TEN[fractionDigits];
+    }
+}
@@ -0,0 +1,165 @@
+package com.cececandicorner.inventory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GroupCommitPipeline.java
+ * A single writer thread that gathers single-row writes submitted concurrently by many callers and
+ * runs them together in one transaction, so SQLite's write lock is taken and the log is synced once
+ * per batch instead of once per write. While one batch commits, new writes queue up and form the
+ * next batch, so batches grow with the load instead of callers fighting over the lock.
+ * Each write runs inside its own savepoint: a write that fails (for example on a constraint) is
+ * rolled back alone and only its caller sees the error. If the commit itself fails, every caller
+ * in the batch sees that error.
+ */
+final class GroupCommitPipeline implements AutoCloseable {
+
+    /** One database write, run on the pipeline's connection inside the batch transaction. */
+    @FunctionalInterface
+    interface Write<T> {
+        /**
+         * Runs the write.
+         * @param conn The connection holding the batch transaction; must not be closed or committed.
+         * @return The result for the caller.
+         * @throws SQLException if the write fails.
+         */
+        T apply(PooledConnection conn) throws SQLException;
+    }
+
+    /** A queued write and the future its caller is waiting on. */
+    private record Request<T>(Write<T> write, CompletableFuture<T> future) {
+
+        void run(PooledConnection conn, List<Runnable> completions) throws SQLException {
+            T result = write.apply(conn);
+            completions.add(() -> future.complete(result)); // Only once the batch has committed
+        }
+    }
+
+    private final ConnectionPool pool;
+    private final int maxBatchSize;
+    private final BlockingQueue<Request<?>> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    /**
+     * Creates the pipeline and starts its writer thread.
+     * @param pool         The pool the writer borrows its connection from.
+     * @param maxBatchSize The maximum number of writes committed together.
+     */
+    GroupCommitPipeline(ConnectionPool pool, int maxBatchSize) {
+        this.pool = pool;
+        this.maxBatchSize = maxBatchSize;
+        this.writer = new Thread(this::run, "inventory-db-group-commit");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues a write for the next batch.
+     * @param write The write to run.
+     * @param <T>   The type of the write's result.
+     * @return A future completing with the write's result once its batch has committed.
+     */
+    <T> CompletableFuture<T> submit(Write<T> write) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (closed) {
+            future.completeExceptionally(new SQLException("Database writer has been closed."));
+            return future;
+        }
+        Request<T> request = new Request<>(write, future);
+        queue.add(request);
+        // close() may have run its final drain between the check above and the add. Whoever removes
+        // the request from the queue completes it, so it is failed here only if nobody else took it.
+        if (closed && queue.remove(request)) {
+            future.completeExceptionally(new SQLException("Database writer has been closed."));
+        }
+        return future;
+    }
+
+    private void run() {
+        List<Request<?>> batch = new ArrayList<>(maxBatchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Request<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1); // Everything that arrived meanwhile joins this batch
+                commit(batch);
+            } catch (InterruptedException e) {
+                closed = true;
+            } finally {
+                batch.clear();
+            }
+        }
+        // Anything still queued after an interrupt must not leave its caller waiting forever
+        Request<?> left;
+        while ((left = queue.poll()) != null) {
+            left.future().completeExceptionally(new SQLException("Database writer has been closed."));
+        }
+    }
+
+    /**
+     * Runs one batch in a single transaction and completes the callers' futures.
+     * @param batch The writes to run, in arrival order.
+     */
+    private void commit(List<Request<?>> batch) {
+        List<Runnable> completions = new ArrayList<>(batch.size());
+        try (PooledConnection conn = pool.borrow()) {
+            Connection connection = conn.getConnection();
+            connection.setAutoCommit(false);
+            try {
+                for (Request<?> request : batch) {
+                    Savepoint savepoint = connection.setSavepoint();
+                    try {
+                        request.run(conn, completions);
+                        connection.releaseSavepoint(savepoint);
+                    } catch (SQLException e) {
+                        connection.rollback(savepoint); // Undo only this caller's write
+                        connection.releaseSavepoint(savepoint);
+                        completions.add(() -> request.future().completeExceptionally(e));
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Error committing a batch of " + batch.size() + " writes: " + e.getMessage());
+            for (Request<?> request : batch) {
+                request.future().completeExceptionally(e);
+            }
+            return;
+        }
+        completions.forEach(Runnable::run);
+    }
+
+    /**
+     * Stops accepting writes, lets the writer finish everything already queued, and stops it.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Request<?> left; // Writes that raced with close after the writer stopped
+        while ((left = queue.poll()) != null) {
+            left.future().completeExceptionally(new SQLException("Database writer has been closed."));
+        }
+    }
+}
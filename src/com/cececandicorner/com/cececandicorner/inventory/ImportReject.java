@@ -0,0 +1,15 @@
+package com.cececandicorner.inventory;
+
+/**
+ * ImportReject.java
+ * A row of an imported file that was not added to the inventory.
+ * @param lineNumber The 1-based line number in the file.
+ * @param reason     Why the row was rejected (e.g., "Quantity must be a valid non-negative integer").
+ */
+public record ImportReject(long lineNumber, String reason) {
+
+    @Override
+    public String toString() {
+        return String.format("Line %d: %s", lineNumber, reason);
+    }
+}
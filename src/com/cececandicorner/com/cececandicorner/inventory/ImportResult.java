@@ -0,0 +1,32 @@
+package com.cececandicorner.inventory;
+
+import java.util.List;
+
+/**
+ * ImportResult.java
+ * The summary of a catalog import by {@link CsvImporter}.
+ * @param rowsRead      Data rows read from the file (blank lines and the header are not counted).
+ * @param inserted      Rows added to the inventory.
+ * @param duplicates    Valid rows skipped because the ID already exists.
+ * @param rejected      Rows not added for any reason, including duplicates and database errors.
+ * @param rejects       The rejected rows with their line numbers, chunk by chunk in file order; capped,
+ *                      so it may hold fewer entries than {@code rejected}.
+ * @param elapsedMillis Wall-clock time taken by the import, in milliseconds.
+ */
+public record ImportResult(long rowsRead, long inserted, long duplicates, long rejected,
+                           List<ImportReject> rejects, long elapsedMillis) {
+
+    /**
+     * Calculates the import throughput.
+     * @return Rows read per second, or 0.0 if no time was measured.
+     */
+    public double rowsPerSecond() {
+        return elapsedMillis == 0 ? 0.0 : rowsRead * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Imported %d of %d rows in %.1f s (%.0f rows/sec); %d duplicates, %d rejected.",
+                inserted, rowsRead, elapsedMillis / 1000.0, rowsPerSecond(), duplicates, rejected);
+    }
+}
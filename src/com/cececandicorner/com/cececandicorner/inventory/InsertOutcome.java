@@ -0,0 +1,17 @@
+package com.cececandicorner.inventory;
+
+/**
+ * InsertOutcome.java
+ * The result of inserting a single row through {@link DatabaseManager#insertBracelets(java.util.Collection)}
+ * or {@link DatabaseManager#insertBraceletIfAbsent(InventoryItem)}.
+ */
+public enum InsertOutcome {
+    /** The row was written to the database. */
+    INSERTED,
+    /** A bracelet with the same ID already exists (in the database or earlier in the same batch). */
+    DUPLICATE,
+    /** The row was rejected before reaching the database (empty ID/description, negative quantity or price). */
+    INVALID,
+    /** The row was valid but the transaction was rolled back because of a database error. */
+    FAILED
+}
@@ -0,0 +1,246 @@
+package com.cececandicorner.inventory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * InventoryExporter.java
+ * Writes the whole bracelets table to a CSV or JSON Lines file, for backups and for feeding other tools.
+ * Rows are streamed from {@link DatabaseManager#forEachBraceletOrThrow} straight into a buffered writer over a
+ * file channel (optionally gzip-compressed), so memory use stays constant however large the inventory is.
+ * The CSV layout is the one {@link CsvImporter} reads, so an export can be imported again. The importer
+ * reads one line per bracelet, so line breaks inside a CSV value are written as spaces; JSON Lines
+ * keeps them escaped.
+ * The file is written under a temporary name and moved into place when complete, so a reader never
+ * sees a half-written export.
+ */
+public class InventoryExporter {
+
+    /** The output formats. */
+    public enum Format {
+        /** Comma-separated values with a header line. */
+        CSV,
+        /** One JSON object per line. */
+        JSONL;
+
+        /**
+         * Picks the format from a file name: names ending in ".jsonl" or ".jsonl.gz" are JSON Lines,
+         * everything else is CSV.
+         * @param fileName The file name.
+         * @return The matching format.
+         */
+        public static Format fromFileName(String fileName) {
+            String name = fileName.toLowerCase(Locale.ROOT);
+            return name.endsWith(".jsonl") || name.endsWith(".jsonl.gz") ? JSONL : CSV;
+        }
+    }
+
+    private static final String CSV_HEADER = "id,description,quantity,price,status";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DatabaseManager dbManager;
+    private final Format format;
+    private final boolean gzip;
+
+    /**
+     * Creates an exporter.
+     * @param dbManager The database to export from.
+     * @param format    The output format.
+     * @param gzip      Whether to gzip-compress the output.
+     */
+    public InventoryExporter(DatabaseManager dbManager, Format format, boolean gzip) {
+        this.dbManager = dbManager;
+        this.format = format;
+        this.gzip = gzip;
+    }
+
+    /**
+     * Creates an exporter whose format and compression follow the file name, e.g. "inventory.csv.gz"
+     * is gzip-compressed CSV and "inventory.jsonl" is plain JSON Lines.
+     * @param dbManager The database to export from.
+     * @param file      The file that will be written.
+     * @return The exporter.
+     */
+    public static InventoryExporter forFile(DatabaseManager dbManager, Path file) {
+        String name = file.getFileName().toString();
+        return new InventoryExporter(dbManager, Format.fromFileName(name),
+                name.toLowerCase(Locale.ROOT).endsWith(".gz"));
+    }
+
+    /**
+     * Exports every bracelet to a file, replacing it if it exists.
+     * @param file The file to write.
+     * @return The export summary.
+     * @throws IOException if the file cannot be written or the inventory cannot be fully read;
+     *                     the existing file is then left unchanged.
+     */
+    public ExportResult exportTo(Path file) throws IOException {
+        long start = System.nanoTime();
+        Path target = file.toAbsolutePath();
+        Path temp = target.resolveSibling(target.getFileName() + ".part");
+        long rows;
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                 Writer out = open(Channels.newOutputStream(channel))) {
+                rows = writeRows(out);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return new ExportResult(target, rows, Files.size(target), elapsedMillis);
+    }
+
+    private Writer open(OutputStream channelStream) throws IOException {
+        OutputStream stream = gzip ? new GZIPOutputStream(channelStream, BUFFER_SIZE) : channelStream;
+        return new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    private long writeRows(Writer out) throws IOException {
+        StringBuilder line = new StringBuilder(128); // Reused for every row
+        if (format == Format.CSV) {
+            out.write(CSV_HEADER);
+            out.write('\n');
+        }
+        try {
+            return dbManager.forEachBraceletOrThrow(bracelet -> {
+                line.setLength(0);
+                if (format == Format.CSV) {
+                    appendCsv(line, bracelet);
+                } else {
+                    appendJson(line, bracelet);
+                }
+                line.append('\n');
+                try {
+                    out.append(line);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (SQLException e) {
+            throw new IOException("Error reading inventory: " + e.getMessage(), e); // Keeps the partial file out of place
+        }
+    }
+
+    static void appendCsv(StringBuilder line, InventoryItem item) {
+        appendCsvField(line, item.getId()).append(',');
+        appendCsvField(line, item.getDescription()).append(',');
+        line.append(item.getQuantity()).append(',');
+        line.append(plainPrice(item.getPrice())).append(',');
+        appendCsvField(line, item.getStatus());
+    }
+
+    private static StringBuilder appendCsvField(StringBuilder line, String value) {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0;
+        if (!quote && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return line.append(value);
+        }
+        if (quote) {
+            line.append('"');
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"'); // Quotes are escaped by doubling them
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r' && i + 1 < value.length() && value.charAt(i + 1) == '\n') {
+                    i++; // A CRLF pair becomes one space
+                }
+                line.append(' ');
+                continue;
+            }
+            line.append(c);
+        }
+        return quote ? line.append('"') : line;
+    }
+
+    static void appendJson(StringBuilder line, InventoryItem item) {
+        line.append("{\"id\":");
+        appendJsonString(line, item.getId());
+        line.append(",\"description\":");
+        appendJsonString(line, item.getDescription());
+        line.append(",\"quantity\":").append(item.getQuantity());
+        line.append(",\"price\":").append(plainPrice(item.getPrice()));
+        line.append(",\"status\":");
+        appendJsonString(line, item.getStatus());
+        line.append('}');
+    }
+
+    private static void appendJsonString(StringBuilder line, String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        line.append('"');
+    }
+
+    // Double.toString switches to exponent notation for large values, which the CSV importer does not accept
+    private static String plainPrice(double price) {
+        return BigDecimal.valueOf(price).toPlainString();
+    }
+
+    /**
+     * Exports a database from the command line, e.g. for a nightly backup job:
+     * {@code InventoryExporter inventory.db backup.csv.gz}.
+     * The format and compression follow the output file name.
+     * @param args The database file and the output file.
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: InventoryExporter <database file> <output file (.csv, .jsonl, optionally .gz)>");
+            System.exit(2);
+        }
+        int exitCode = 0;
+        // Exit only after the try block, so the database manager is always closed first
+        try (DatabaseManager dbManager = new DatabaseManager(args[0])) {
+            Path file = Paths.get(args[1]);
+            System.out.println(forFile(dbManager, file).exportTo(file));
+        } catch (IOException e) {
+            System.err.println("Error writing " + args[1] + ": " + e.getMessage());
+            exitCode = 1;
+        }
+        if (exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.cececandicorner.inventory;
+
+import java.util.Objects;
+
+/**
+ * InventoryItem.java
+ * An immutable snapshot of one bracelet as stored in the database.
+ * This is the type used by the DatabaseManager and InventoryManager. It holds plain fields
+ * (no JavaFX properties), so it is cheap to create in large numbers and can be used by headless
+ * tools without loading JavaFX. The GUI wraps an item in an observable {@link Bracelet} only when
+ * the row is actually displayed.
+ * Changes are made by creating a modified copy with the {@code with...} methods.
+ */
+public final class InventoryItem {
+    /** This acts as the Unique ID for the bracelet (i.e. 002) */
+    private final String id;
+
+    /** The name of the bracelet and a brief description */
+    private final String description;
+
+    /** The number of bracelets in stock */
+    private final int quantity;
+
+    /** The retail price for a singular bracelet item */
+    private final double price;
+
+    /** The current stock status (i.e. 'In Stock' or 'Out of Stock') */
+    private final String status;
+
+    /**
+     * Constructor to initialize a new InventoryItem.
+     * @param id          The unique identifier for the bracelet.
+     * @param description A brief description or name of the bracelet.
+     * @param quantity    The current stock quantity of the bracelet.
+     * @param price       The selling price of the bracelet.
+     * @param status      The stock status (e.g., "In Stock", "Out of Stock").
+     */
+    public InventoryItem(String id, String description, int quantity, double price, String status) {
+        this.id = id;
+        this.description = description;
+        this.quantity = quantity;
+        this.price = price;
+        this.status = status;
+    }
+
+    /**
+     * Retrieves the unique ID of the bracelet.
+     * @return The bracelet's ID.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Retrieves the description of the bracelet.
+     * @return The bracelet's description.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Retrieves the current stock quantity of the bracelet.
+     * @return The bracelet's quantity.
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Retrieves the selling price of the bracelet.
+     * @return The bracelet's price.
+     */
+    public double getPrice() {
+        return price;
+    }
+
+    /**
+     * Retrieves the stock status of the bracelet.
+     * @return The bracelet's status.
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Creates a copy of this item with a different quantity.
+     * @param newQuantity The new quantity.
+     * @return The modified copy.
+     */
+    public InventoryItem withQuantity(int newQuantity) {
+        return new InventoryItem(id, description, newQuantity, price, status);
+    }
+
+    /**
+     * Creates a copy of this item with a different price.
+     * @param newPrice The new price.
+     * @return The modified copy.
+     */
+    public InventoryItem withPrice(double newPrice) {
+        return new InventoryItem(id, description, quantity, newPrice, status);
+    }
+
+    /**
+     * Creates a copy of this item with a different stock status.
+     * @param newStatus The new status (e.g., "In Stock", "Out of Stock").
+     * @return The modified copy.
+     */
+    public InventoryItem withStatus(String newStatus) {
+        return new InventoryItem(id, description, quantity, price, newStatus);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof InventoryItem)) {
+            return false;
+        }
+        InventoryItem other = (InventoryItem) o;
+        return quantity == other.quantity
+                && Double.compare(price, other.price) == 0
+                && Objects.equals(id, other.id)
+                && Objects.equals(description, other.description)
+                && Objects.equals(status, other.status);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, description, quantity, price, status);
+    }
+
+    /**
+     * Provides a string representation of the item, in the same format as {@link Bracelet#toString()}.
+     * @return A formatted string containing all bracelet details.
+     */
+    @Override
+    public String toString() {
+        return String.format("ID: %s, Description: %s, Quantity: %d, Price: $%.2f, Status: %s",
+                id, description, quantity, price, status);
+    }
+}
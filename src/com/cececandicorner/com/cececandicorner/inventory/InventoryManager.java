@@ -1,42 +1,263 @@
 package com.cececandicorner.inventory; // IMPORTANT: Ensure this matches your package name
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
 
 /** InventoryManager.java
-* Manages the inventory of Bracelet objects for Cece's Candi Corner.
+* Manages the inventory of bracelets for Cece's Candi Corner.
 * This class now interfaces with a DatabaseManager for persistent storage
 * instead of an in-memory list or text files.
 * It handles all core CRUD (Create, Read, Update, Delete) operations,
 * and generates reports by delegating to the DatabaseManager.
 * It includes robust input validation to ensure data integrity.
+* Bracelets are handled as immutable {@link InventoryItem} snapshots, so this class
+* does not depend on JavaFX and can be used by headless tools.
+* Optionally the manager can run fully resident: the whole table is loaded once into a
+* concurrent in-memory index keyed by ID, all reads are served from memory, and every
+* mutation is written through to the database before the index is updated, so SQLite
+* remains the durable source of truth.
+* A resident manager also keeps the bracelets sorted by quantity, so a low-stock report is a
+* range scan over the low end of that index and costs time proportional to the number of
+* low-stock items rather than the size of the catalog.
+* Consumers can also register a {@link LowStockListener} to be told as soon as a quantity change
+* crosses a global threshold or a bracelet's own reorder point, instead of running reports.
+* A resident manager can additionally switch to write-behind (see {@link #enableWriteBehind}), where
+* stock edits are applied in memory at once and saved to the database in coalesced batches.
+* Call {@link #close()} on shutdown so nothing queued is lost.
 */
 
-public class InventoryManager {
-    // No longer storing an in-memory list; operations delegate to database
+public class InventoryManager implements AutoCloseable {
+    // By default no in-memory list is kept; operations delegate to database
     private DatabaseManager dbManager;
 
+    /** In-memory copy of every bracelet, keyed by ID; null unless running fully resident. */
+    private final Map<String, InventoryItem> resident;
+
+    /** Orders bracelets by quantity, lowest first, with ties broken by ID (the same order as the SQL report). */
+    private static final Comparator<InventoryItem> BY_QUANTITY =
+            Comparator.comparingInt(InventoryItem::getQuantity).thenComparing(InventoryItem::getId);
+
+    /** The resident bracelets sorted by quantity; null unless running fully resident. */
+    private final NavigableSet<InventoryItem> byQuantity;
+
+    /**
+     * A registered low-stock listener.
+     * @param listener  The listener to notify.
+     * @param threshold The global threshold, or null to use each bracelet's reorder point.
+     */
+    private record LowStockSubscription(LowStockListener listener, Integer threshold) {}
+
+    private final List<LowStockSubscription> lowStockSubscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * A threshold crossing waiting to be delivered.
+     * @param listener The listener to notify.
+     * @param event    The crossing.
+     */
+    private record LowStockAlert(LowStockListener listener, LowStockEvent event) {}
+
+    /** Crossings queued under writeLock in commit order, delivered after it is released. */
+    private final Queue<LowStockAlert> pendingAlerts = new ConcurrentLinkedQueue<>();
+
+    /** Held while delivering, so alerts reach listeners one at a time and in commit order. */
+    private final Object alertLock = new Object();
+
+    /** Per-bracelet reorder points, keyed by ID. Kept in memory only. */
+    private final Map<String, Integer> reorderPoints = new ConcurrentHashMap<>();
+
+    /** Serializes mutations so the database and the in-memory state are changed in the same order. */
+    private final Object writeLock = new Object();
+
+    /** Queue of edits not yet saved; null unless write-behind has been enabled. Changed only under writeLock. */
+    private volatile WriteBehindQueue writeBehind;
+
     /**
      * Constructor to initialize the InventoryManager with a DatabaseManager.
      * @param dbManager The DatabaseManager instance to use for database operations.
      */
     public InventoryManager(DatabaseManager dbManager) {
+        this(dbManager, false);
+    }
+
+    /**
+     * Constructor to initialize the InventoryManager, optionally in fully resident mode.
+     * In resident mode the whole table is read once here; afterwards reads never touch the database.
+     * The database must not be modified by anything other than this manager while it is resident.
+     * @param dbManager The DatabaseManager instance to use for database operations.
+     * @param fullyResident true to keep the whole inventory in memory and serve reads from it.
+     */
+    public InventoryManager(DatabaseManager dbManager, boolean fullyResident) {
         this.dbManager = dbManager;
         // Ensure the table exists when manager is initialized
         if (!dbManager.createTable()) {
             System.err.println("Failed to ensure database table exists on startup.");
         }
+        if (fullyResident) {
+            resident = new ConcurrentHashMap<>();
+            byQuantity = new ConcurrentSkipListSet<>(BY_QUANTITY);
+            dbManager.forEachBracelet(this::remember);
+        } else {
+            resident = null;
+            byQuantity = null;
+        }
+    }
+
+    /**
+     * Switches a resident manager to write-behind. Quantity, price and status edits (updateBracelet
+     * and adjustQuantity) then only change the in-memory state and are queued; the queue coalesces
+     * edits per bracelet and saves them in one transaction every {@code flushIntervalMillis}, or as soon
+     * as {@code flushThreshold} edits are queued. Adding and removing bracelets is still written through.
+     * Database reads that bypass memory (such as {@link #getInventoryPage}) only see flushed edits.
+     * @param flushIntervalMillis How often queued edits are saved.
+     * @param flushThreshold      Number of queued edits that triggers an immediate save.
+     * @param maxLagMillis        If the oldest unsaved edit is older than this (e.g. saves keep failing),
+     *                            the next edit waits for a save itself. Must be at least the flush interval.
+     * @throws IllegalStateException if the manager is not resident or write-behind is already on.
+     */
+    public void enableWriteBehind(long flushIntervalMillis, int flushThreshold, long maxLagMillis) {
+        if (resident == null) {
+            throw new IllegalStateException("Write-behind needs a fully resident InventoryManager.");
+        }
+        synchronized (writeLock) {
+            if (writeBehind != null) {
+                throw new IllegalStateException("Write-behind is already enabled.");
+            }
+            writeBehind = new WriteBehindQueue(dbManager, flushIntervalMillis, flushThreshold, maxLagMillis,
+                    this::reloadSkipped);
+        }
     }
 
     /**
-     * Getter for the inventory list. This now fetches all bracelets from the database.
-     * @return A list of Bracelet objects from the database.
+     * Brings the in-memory copies of bracelets back in line with the database after the write-behind
+     * queue dropped their changes (the stock was sold elsewhere before the changes were saved).
+     * Changes queued for them since are applied on top, as they will be when saved.
+     * @param itemIds The IDs of the bracelets whose changes were skipped.
      */
-    public List<Bracelet> getInventory() {
+    private void reloadSkipped(List<String> itemIds) {
+        synchronized (writeLock) {
+            WriteBehindQueue queue = writeBehind;
+            for (String itemId : itemIds) {
+                InventoryItem stored = dbManager.selectBraceletById(itemId);
+                if (stored == null) {
+                    forget(itemId);
+                } else {
+                    remember(queue == null ? stored : queue.withPending(stored));
+                }
+            }
+        }
+    }
+
+    /**
+     * Saves every queued write-behind edit now. Does nothing if write-behind is off.
+     * @return true if nothing was queued or the save committed, false if it failed (the edits stay queued).
+     */
+    public boolean flush() {
+        synchronized (writeLock) {
+            return writeBehind == null || writeBehind.flush();
+        }
+    }
+
+    /**
+     * Retrieves the number of write-behind edits not yet saved to the database.
+     * @return The queue depth, or 0 if write-behind is off.
+     */
+    public int getWriteBehindQueueDepth() {
+        WriteBehindQueue queue = writeBehind;
+        return queue == null ? 0 : queue.getQueueDepth();
+    }
+
+    /**
+     * Saves any queued write-behind edits and stops the background flusher. The DatabaseManager is
+     * not closed, as it is owned by the caller. Safe to call when write-behind was never enabled.
+     */
+    @Override
+    public void close() {
+        synchronized (writeLock) {
+            if (writeBehind != null) {
+                writeBehind.close();
+                writeBehind = null;
+            }
+        }
+    }
+
+    /**
+     * Checks whether this manager serves reads from its in-memory index.
+     * @return true if running fully resident, false if every read goes to the database.
+     */
+    public boolean isResident() {
+        return resident != null;
+    }
+
+    /**
+     * Getter for the inventory list. This fetches all bracelets from the database,
+     * or copies them from memory (in no particular order) when running fully resident.
+     * @return A list of InventoryItem objects.
+     */
+    public List<InventoryItem> getInventory() {
+        if (resident != null) {
+            return new ArrayList<>(resident.values());
+        }
         return dbManager.selectAllBracelets();
     }
 
+    /**
+     * Fetches one page of the inventory, so callers only load the rows they display.
+     * Pass the ID of the last bracelet from the previous page to get the next one.
+     * @param afterId The ID of the last bracelet on the previous page, or null for the first page.
+     * @param pageSize The maximum number of bracelets on the page.
+     * @param sortKey The order of the pages (by ID or by quantity).
+     * @return A list of at most {@code pageSize} InventoryItem objects; an empty list means there are no more pages.
+     */
+    public List<InventoryItem> getInventoryPage(String afterId, int pageSize, DatabaseManager.SortKey sortKey) {
+        return dbManager.selectPage(afterId, pageSize, sortKey);
+    }
+
+    /**
+     * Fetches the page of the inventory starting at a row position, for jumping to an arbitrary
+     * place; sequential readers should continue from the previous page with {@link #getInventoryPage}.
+     * @param offset The position of the first row, counting from 0.
+     * @param pageSize The maximum number of bracelets on the page.
+     * @param sortKey The order of the rows (by ID or by quantity).
+     * @return A list of at most {@code pageSize} InventoryItem objects.
+     */
+    public List<InventoryItem> getInventoryPageAt(int offset, int pageSize, DatabaseManager.SortKey sortKey) {
+        return dbManager.selectPageAt(offset, pageSize, sortKey);
+    }
+
+    /**
+     * Retrieves the number of bracelets in the inventory.
+     * @return The number of bracelets, or -1 if the database could not be read.
+     */
+    public int getInventorySize() {
+        if (resident != null) {
+            return resident.size();
+        }
+        return dbManager.countBracelets();
+    }
+
+    /**
+     * Streams the inventory from the database without loading it all into memory.
+     * Suited to exports and reports over large catalogs. The stream must be closed after use.
+     * @return A lazy stream of InventoryItem objects.
+     */
+    public Stream<InventoryItem> streamInventory() {
+        if (resident != null) {
+            return resident.values().stream();
+        }
+        return dbManager.streamAllBracelets();
+    }
+
     // --- Input Validation Methods (private helpers) ---
     /**
      * Validates if the provided ID is not null or empty after trimming whitespace.
@@ -62,15 +283,7 @@ public class InventoryManager {
      * @return The parsed integer quantity if valid, -1 to indicate an error.
      */
     private int validateQuantity(String quantityStr) {
-        try {
-            int quantity = Integer.parseInt(quantityStr);
-            if (quantity < 0) {
-                return -1; // Indicate error: negative quantity
-            }
-            return quantity;
-        } catch (NumberFormatException e) {
-            return -1; // Indicate error: not a valid integer
-        }
+        return FieldParsers.parseNonNegativeInt(quantityStr); // -1 for negative or not a valid integer
     }
 
     /**
@@ -79,15 +292,7 @@ public class InventoryManager {
      * @return The parsed double price if valid, -1.0 to indicate an error.
      */
     private double validatePrice(String priceStr) {
-        try {
-            double price = Double.parseDouble(priceStr);
-            if (price < 0) {
-                return -1.0; // Indicate error: negative price
-            }
-            return price;
-        } catch (NumberFormatException e) {
-            return -1.0; // Indicate error: not a valid number
-        }
+        return FieldParsers.parseNonNegativeDecimal(priceStr); // -1.0 for negative or not a valid number
     }
 
     /**
@@ -105,18 +310,196 @@ public class InventoryManager {
      * @return true if the ID is unique (does not exist in database), false otherwise.
      */
     public boolean isIdUnique(String itemId) {
+        if (resident != null) {
+            return !resident.containsKey(itemId);
+        }
         return !dbManager.doesIdExist(itemId);
     }
 
     /**
-     * Finds a bracelet by its ID from the database.
+     * Finds a bracelet by its ID from the database (or from memory when running fully resident).
      * @param itemId The ID of the bracelet to find.
-     * @return The Bracelet object if found, null otherwise.
+     * @return The InventoryItem object if found, null otherwise.
      */
-    public Bracelet getBraceletById(String itemId) {
+    public InventoryItem getBraceletById(String itemId) {
+        if (resident != null) {
+            return resident.get(itemId);
+        }
         return dbManager.selectBraceletById(itemId);
     }
 
+    /**
+     * Registers a listener that is notified whenever a bracelet's quantity crosses the given threshold.
+     * @param threshold The quantity below which a bracelet counts as low on stock.
+     * @param listener  The listener to notify.
+     */
+    public void addLowStockListener(int threshold, LowStockListener listener) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Low stock threshold cannot be negative.");
+        }
+        lowStockSubscriptions.add(new LowStockSubscription(listener, threshold));
+    }
+
+    /**
+     * Registers a listener that is notified whenever a bracelet's quantity crosses that bracelet's
+     * reorder point. Bracelets without a reorder point are ignored.
+     * @param listener The listener to notify.
+     * @see #setReorderPoint(String, int)
+     */
+    public void addLowStockListener(LowStockListener listener) {
+        lowStockSubscriptions.add(new LowStockSubscription(listener, null));
+    }
+
+    /**
+     * Unregisters a listener from every threshold it was registered for.
+     * @param listener The listener to remove.
+     */
+    public void removeLowStockListener(LowStockListener listener) {
+        lowStockSubscriptions.removeIf(subscription -> subscription.listener() == listener);
+    }
+
+    /**
+     * Sets the reorder point for one bracelet, used by listeners registered without a global threshold.
+     * @param itemId       The ID of the bracelet.
+     * @param reorderPoint The quantity below which this bracelet counts as low on stock.
+     */
+    public void setReorderPoint(String itemId, int reorderPoint) {
+        if (reorderPoint < 0) {
+            throw new IllegalArgumentException("Reorder point cannot be negative.");
+        }
+        reorderPoints.put(itemId, reorderPoint);
+    }
+
+    /**
+     * Removes the reorder point for one bracelet.
+     * @param itemId The ID of the bracelet.
+     */
+    public void clearReorderPoint(String itemId) {
+        reorderPoints.remove(itemId);
+    }
+
+    /**
+     * Queues an alert for each listener whose threshold lies between the old and new quantity.
+     * Only the changed bracelet is examined, so this costs nothing like a report. Must be called
+     * while holding writeLock, so alerts are queued in commit order; the listeners are only called
+     * by {@link #deliverLowStockAlerts()}, once the lock is released, so a slow listener cannot stall writers.
+     * @param previousQuantity The quantity before the change.
+     * @param current          The bracelet as now stored.
+     * @return true if any alert was queued, in which case the caller must deliver it.
+     */
+    private boolean queueLowStockCrossings(int previousQuantity, InventoryItem current) {
+        boolean queued = false;
+        for (LowStockSubscription subscription : lowStockSubscriptions) {
+            Integer threshold = subscription.threshold() != null
+                    ? subscription.threshold() : reorderPoints.get(current.getId());
+            if (threshold == null) {
+                continue; // Per-item listener, but this bracelet has no reorder point
+            }
+            if ((previousQuantity < threshold) != (current.getQuantity() < threshold)) {
+                pendingAlerts.add(new LowStockAlert(subscription.listener(),
+                        new LowStockEvent(current, previousQuantity, threshold)));
+                queued = true;
+            }
+        }
+        return queued;
+    }
+
+    /**
+     * Delivers the queued low-stock alerts. Called after releasing writeLock by writers that queued
+     * an alert; if another writer is delivering, this waits for it, so every alert queued by the
+     * caller has been delivered when this returns.
+     */
+    private void deliverLowStockAlerts() {
+        synchronized (alertLock) {
+            LowStockAlert alert;
+            while ((alert = pendingAlerts.poll()) != null) {
+                try {
+                    alert.listener().onThresholdCrossed(alert.event());
+                } catch (RuntimeException e) {
+                    System.err.println("Low stock listener failed for bracelet " + alert.event().item().getId()
+                            + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Saves a changed bracelet: writes it to the database, or queues the change in write-behind mode.
+     * Must be called while holding writeLock.
+     * @param before The bracelet before the change.
+     * @param after  The bracelet after the change.
+     * @return true if the change was written or queued, false if the database write failed.
+     */
+    private boolean store(InventoryItem before, InventoryItem after) {
+        if (writeBehind != null) {
+            writeBehind.enqueue(before, after);
+            return true;
+        }
+        return dbManager.updateBracelet(after);
+    }
+
+    /**
+     * Applies a change to the in-memory copy of a bracelet and queues it, following the same status
+     * rules as the database statements. Only used in write-behind mode, while holding writeLock.
+     * @param itemId   The ID of the bracelet.
+     * @param quantity The new quantity, or null to keep it.
+     * @param price    The new price, or null to keep it.
+     * @param status   The new status, or null to keep it (or let the quantity decide it).
+     * @return The changed bracelet, or null if it does not exist.
+     */
+    private InventoryItem applyInMemory(String itemId, Integer quantity, Double price, String status) {
+        InventoryItem before = resident.get(itemId);
+        if (before == null) {
+            return null;
+        }
+        InventoryItem after = before;
+        if (quantity != null) {
+            after = after.withQuantity(quantity);
+            if (status == null) {
+                if (quantity == 0) {
+                    after = after.withStatus("Out of Stock");
+                } else if (before.getStatus().equalsIgnoreCase("Out of Stock")) {
+                    after = after.withStatus("In Stock");
+                }
+            }
+        }
+        if (price != null) {
+            after = after.withPrice(price);
+        }
+        if (status != null) {
+            after = after.withStatus(status);
+        }
+        writeBehind.enqueue(before, after);
+        return after;
+    }
+
+    /**
+     * Records a bracelet that has just been written to the database.
+     * @param item The bracelet as now stored.
+     */
+    private void remember(InventoryItem item) {
+        if (resident != null) {
+            InventoryItem previous = resident.put(item.getId(), item);
+            if (previous != null) {
+                byQuantity.remove(previous); // Its old position in the quantity order is stale
+            }
+            byQuantity.add(item);
+        }
+    }
+
+    /**
+     * Records that a bracelet has just been deleted from the database.
+     * @param itemId The ID of the deleted bracelet.
+     */
+    private void forget(String itemId) {
+        if (resident != null) {
+            InventoryItem previous = resident.remove(itemId);
+            if (previous != null) {
+                byQuantity.remove(previous);
+            }
+        }
+    }
+
     // --- Core Functional Methods (adapted for GUI and Database) ---
 
     /**
@@ -131,9 +514,6 @@ public class InventoryManager {
         if (!validateId(id)) {
             return "Error: ID cannot be empty.";
         }
-        if (!isIdUnique(id)) { // Check uniqueness against database
-            return "Error: A bracelet with this ID already exists. Please enter a unique ID.";
-        }
         if (!validateDescription(description)) {
             return "Error: Description cannot be empty.";
         }
@@ -152,11 +532,18 @@ public class InventoryManager {
         String status = "In Stock";
 
         try {
-            Bracelet newBracelet = new Bracelet(id, description, quantity, price, status);
-            if (dbManager.insertBracelet(newBracelet)) { // Insert into database
-                return String.format("Successfully added: %s", newBracelet);
-            } else {
-                return "Error: Failed to add bracelet to database.";
+            InventoryItem newBracelet = new InventoryItem(id, description, quantity, price, status);
+            synchronized (writeLock) {
+                // One statement: the primary key rejects a taken ID, so no separate uniqueness check
+                switch (dbManager.insertBraceletIfAbsent(newBracelet)) {
+                    case INSERTED:
+                        remember(newBracelet);
+                        return String.format("Successfully added: %s", newBracelet);
+                    case DUPLICATE:
+                        return "Error: A bracelet with this ID already exists. Please enter a unique ID.";
+                    default:
+                        return "Error: Failed to add bracelet to database.";
+                }
             }
         } catch (Exception e) {
             return String.format("An unexpected error occurred while adding the bracelet: %s", e.getMessage());
@@ -173,14 +560,21 @@ public class InventoryManager {
             return "Error: Bracelet ID cannot be empty.";
         }
 
-        if (!dbManager.doesIdExist(itemId)) { // Check existence in database
-            return String.format("Error: Bracelet with ID '%s' not found in inventory.", itemId);
-        }
-
-        if (dbManager.deleteBracelet(itemId)) { // Delete from database
-            return String.format("Successfully removed bracelet with ID: %s", itemId);
-        } else {
-            return String.format("Error: Failed to remove bracelet with ID: %s from database.", itemId);
+        synchronized (writeLock) {
+            // Queued edits must not reach a bracelet re-added under the same ID, and a failed save re-queues them
+            if (writeBehind != null && !writeBehind.flush()) {
+                return String.format("Error: Could not save pending changes; bracelet with ID: %s was not removed.", itemId);
+            }
+            int deleted = dbManager.deleteBraceletIfExists(itemId); // The delete count doubles as the existence check
+            if (deleted > 0) {
+                forget(itemId);
+                reorderPoints.remove(itemId);
+                return String.format("Successfully removed bracelet with ID: %s", itemId);
+            } else if (deleted == 0) {
+                return String.format("Error: Bracelet with ID '%s' not found in inventory.", itemId);
+            } else {
+                return String.format("Error: Failed to remove bracelet with ID: %s from database.", itemId);
+            }
         }
     }
 
@@ -196,104 +590,285 @@ public class InventoryManager {
             return "Error: Bracelet ID cannot be empty.";
         }
 
-        Bracelet braceletToUpdate = dbManager.selectBraceletById(itemId); // Get from database
-        if (braceletToUpdate == null) {
-            return String.format("Error: Bracelet with ID '%s' not found in inventory.", itemId);
-        }
+        boolean alerted = false;
+        try {
+            synchronized (writeLock) { // Read-modify-write must not interleave with other writers
+                InventoryItem braceletToUpdate = getBraceletById(itemId); // Get from database (or memory)
+                if (braceletToUpdate == null) {
+                    return String.format("Error: Bracelet with ID '%s' not found in inventory.", itemId);
+                }
+                InventoryItem original = braceletToUpdate;
+                int previousQuantity = braceletToUpdate.getQuantity();
+
+                String message = "";
+                boolean changed = false; // Flag to track if any value actually changed
 
-        String message = "";
-        boolean changed = false; // Flag to track if any value actually changed
-
-        switch (fieldToUpdate.toLowerCase()) {
-            case "quantity":
-                int newQuantity = validateQuantity(newValue);
-                if (newQuantity != -1) {
-                    if (braceletToUpdate.getQuantity() != newQuantity) { // Only update if value changed
-                        braceletToUpdate.setQuantity(newQuantity);
-                        // Auto-update status based on new quantity
-                        if (newQuantity == 0 && !braceletToUpdate.getStatus().equalsIgnoreCase("Out of Stock")) {
-                            braceletToUpdate.setStatus("Out of Stock");
-                            // FIX: Ensure message matches test expectation exactly
-                            message = "Quantity updated.\nStatus automatically updated to 'Out of Stock'";
-                        } else if (newQuantity > 0 && braceletToUpdate.getStatus().equalsIgnoreCase("Out of Stock")) {
-                            braceletToUpdate.setStatus("In Stock");
-                            // FIX: Ensure message matches test expectation exactly
-                            message = "Quantity updated.\nStatus automatically updated to 'In Stock'";
+                switch (fieldToUpdate.toLowerCase()) {
+                    case "quantity":
+                        int newQuantity = validateQuantity(newValue);
+                        if (newQuantity != -1) {
+                            if (braceletToUpdate.getQuantity() != newQuantity) { // Only update if value changed
+                                braceletToUpdate = braceletToUpdate.withQuantity(newQuantity);
+                                // Auto-update status based on new quantity
+                                if (newQuantity == 0 && !braceletToUpdate.getStatus().equalsIgnoreCase("Out of Stock")) {
+                                    braceletToUpdate = braceletToUpdate.withStatus("Out of Stock");
+                                    // FIX: Ensure message matches test expectation exactly
+                                    message = "Quantity updated.\nStatus automatically updated to 'Out of Stock'";
+                                } else if (newQuantity > 0 && braceletToUpdate.getStatus().equalsIgnoreCase("Out of Stock")) {
+                                    braceletToUpdate = braceletToUpdate.withStatus("In Stock");
+                                    // FIX: Ensure message matches test expectation exactly
+                                    message = "Quantity updated.\nStatus automatically updated to 'In Stock'";
+                                } else {
+                                    message = "Quantity updated.";
+                                }
+                                changed = true;
+                            } else {
+                                return "No change: Quantity is already " + newQuantity + ".";
+                            }
                         } else {
-                            message = "Quantity updated.";
+                            return "Error: New quantity must be a valid non-negative integer.";
                         }
-                        changed = true;
-                    } else {
-                        return "No change: Quantity is already " + newQuantity + ".";
-                    }
-                } else {
-                    return "Error: New quantity must be a valid non-negative integer.";
+                        break;
+                    case "price":
+                        double newPrice = validatePrice(newValue);
+                        if (newPrice != -1.0) {
+                            if (braceletToUpdate.getPrice() != newPrice) { // Only update if value changed
+                                braceletToUpdate = braceletToUpdate.withPrice(newPrice);
+                                message = "Price updated.";
+                                changed = true;
+                            } else {
+                                return "No change: Price is already " + newPrice + ".";
+                            }
+                        } else {
+                            return "Error: New price must be a valid non-negative number.";
+                        }
+                        break;
+                    case "status":
+                        if (validateStatus(newValue)) {
+                            if (!braceletToUpdate.getStatus().equalsIgnoreCase(newValue)) { // Only update if value changed
+                                braceletToUpdate = braceletToUpdate.withStatus(newValue);
+                                message = "Status updated.";
+                                changed = true;
+                            } else {
+                                return "No change: Status is already '" + newValue + "'.";
+                            }
+                        } else {
+                            return "Error: New status must be 'In Stock' or 'Out of Stock'.";
+                        }
+                        break;
+                    default:
+                        return "Error: Invalid field to update. Choose 'quantity', 'price', or 'status'.";
                 }
-                break;
-            case "price":
-                double newPrice = validatePrice(newValue);
-                if (newPrice != -1.0) {
-                    if (braceletToUpdate.getPrice() != newPrice) { // Only update if value changed
-                        braceletToUpdate.setPrice(newPrice);
-                        message = "Price updated.";
-                        changed = true;
+
+                if (changed) {
+                    if (store(original, braceletToUpdate)) { // Update in database (or queue it)
+                        remember(braceletToUpdate);
+                        alerted = queueLowStockCrossings(previousQuantity, braceletToUpdate);
+                        return String.format("%s Updated bracelet: %s", message, braceletToUpdate);
                     } else {
-                        return "No change: Price is already " + newPrice + ".";
+                        return String.format("Error: Failed to update bracelet %s in database.", itemId);
                     }
                 } else {
-                    return "Error: New price must be a valid non-negative number.";
+                    return message; // Return "No change" message if no update occurred
                 }
-                break;
-            case "status":
-                if (validateStatus(newValue)) {
-                    if (!braceletToUpdate.getStatus().equalsIgnoreCase(newValue)) { // Only update if value changed
-                        braceletToUpdate.setStatus(newValue);
-                        message = "Status updated.";
-                        changed = true;
-                    } else {
-                        return "No change: Status is already '" + newValue + "'.";
-                    }
+            }
+        } finally {
+            if (alerted) {
+                deliverLowStockAlerts(); // After the lock is released by leaving the block above
+            }
+        }
+    }
+
+    /**
+     * Applies any combination of quantity, price and status changes to a bracelet in one database
+     * statement, so the change is atomic. The result carries the bracelet before and after the change,
+     * so neither this method nor its callers need to look the row up again.
+     * A new quantity updates the status automatically (as the single-field update does) unless
+     * the patch also sets the status explicitly.
+     * @param itemId The ID of the bracelet to update.
+     * @param patch The changes to apply.
+     * @return The outcome message, with the bracelet before and after the change if it was applied.
+     */
+    public UpdateResult updateBracelet(String itemId, BraceletPatch patch) {
+        if (!validateId(itemId)) {
+            return UpdateResult.unchanged("Error: Bracelet ID cannot be empty.");
+        }
+        if (patch.isEmpty()) {
+            return UpdateResult.unchanged("No change: Nothing to update.");
+        }
+
+        Integer newQuantity = null;
+        if (patch.getQuantity() != null) {
+            newQuantity = validateQuantity(patch.getQuantity());
+            if (newQuantity == -1) {
+                return UpdateResult.unchanged("Error: New quantity must be a valid non-negative integer.");
+            }
+        }
+        Double newPrice = null;
+        if (patch.getPrice() != null) {
+            newPrice = validatePrice(patch.getPrice());
+            if (newPrice == -1.0) {
+                return UpdateResult.unchanged("Error: New price must be a valid non-negative number.");
+            }
+        }
+        if (patch.getStatus() != null && !validateStatus(patch.getStatus())) {
+            return UpdateResult.unchanged("Error: New status must be 'In Stock' or 'Out of Stock'.");
+        }
+
+        List<String> changedFields = new ArrayList<>();
+        if (newQuantity != null) {
+            changedFields.add("Quantity");
+        }
+        if (newPrice != null) {
+            changedFields.add("Price");
+        }
+        if (patch.getStatus() != null) {
+            changedFields.add("Status");
+        }
+
+        boolean alerted = false;
+        try {
+            synchronized (writeLock) {
+                DatabaseManager.PatchedBracelet patched;
+                if (writeBehind != null) {
+                    InventoryItem before = resident.get(itemId);
+                    patched = new DatabaseManager.PatchedBracelet(before,
+                            applyInMemory(itemId, newQuantity, newPrice, patch.getStatus()));
                 } else {
-                    return "Error: New status must be 'In Stock' or 'Out of Stock'.";
+                    patched = dbManager.patchBracelet(itemId, newQuantity, newPrice, patch.getStatus());
+                }
+                if (patched == null) {
+                    return UpdateResult.unchanged(String.format("Error: Failed to update bracelet %s in database.", itemId));
                 }
-                break;
-            default:
-                return "Error: Invalid field to update. Choose 'quantity', 'price', or 'status'.";
+                InventoryItem updated = patched.updated();
+                if (updated == null) {
+                    return UpdateResult.unchanged(String.format("Error: Bracelet with ID '%s' not found in inventory.", itemId));
+                }
+                remember(updated);
+                if (newQuantity != null) {
+                    alerted = queueLowStockCrossings(patched.previous().getQuantity(), updated);
+                }
+                String message = String.format("%s updated. Updated bracelet: %s", String.join(", ", changedFields), updated);
+                return new UpdateResult(message, patched.previous(), updated);
+            }
+        } finally {
+            if (alerted) {
+                deliverLowStockAlerts();
+            }
         }
+    }
 
-        if (changed) {
-            if (dbManager.updateBracelet(braceletToUpdate)) { // Update in database
-                return String.format("%s Updated bracelet: %s", message, braceletToUpdate);
+    /**
+     * Adds (or, with a negative delta, subtracts) stock for a bracelet in one atomic database statement.
+     * Unlike updateBracelet, this does not read the row first, so concurrent sales of the same item
+     * are never lost. The stock status is switched automatically when the quantity reaches or leaves 0.
+     * @param itemId The ID of the bracelet to adjust.
+     * @param delta The change in quantity (e.g., -1 for a single sale).
+     * @return A string message indicating the outcome (success or error).
+     */
+    public String adjustQuantity(String itemId, int delta) {
+        if (!validateId(itemId)) {
+            return "Error: Bracelet ID cannot be empty.";
+        }
+
+        InventoryItem adjusted;
+        boolean alerted = false;
+        synchronized (writeLock) {
+            if (writeBehind != null) {
+                InventoryItem current = resident.get(itemId);
+                adjusted = current == null || current.getQuantity() + delta < 0
+                        ? null : applyInMemory(itemId, current.getQuantity() + delta, null, null);
             } else {
-                return String.format("Error: Failed to update bracelet %s in database.", itemId);
+                adjusted = dbManager.adjustQuantity(itemId, delta);
             }
-        } else {
-            return message; // Return "No change" message if no update occurred
+            if (adjusted != null) {
+                remember(adjusted);
+                alerted = queueLowStockCrossings(adjusted.getQuantity() - delta, adjusted);
+            }
+        }
+        if (alerted) {
+            deliverLowStockAlerts();
+        }
+        if (adjusted != null) {
+            return String.format("Quantity adjusted by %+d. Updated bracelet: %s", delta, adjusted);
+        }
+        // Only on failure do we look again, to tell the user why
+        if (isIdUnique(itemId)) {
+            return String.format("Error: Bracelet with ID '%s' not found in inventory.", itemId);
+        }
+        return String.format("Error: Not enough stock to adjust bracelet '%s' by %d.", itemId, delta);
+    }
+
+    /**
+     * Imports a supplier catalog from a CSV file, parsing in parallel and inserting in batched
+     * transactions. Rows whose ID already exists are skipped and reported. See {@link CsvImporter}
+     * for the file format.
+     * @param file The CSV file to import.
+     * @return The import summary, including rejected rows with their line numbers.
+     * @throws IOException if the file cannot be read.
+     */
+    public ImportResult importCsv(Path file) throws IOException {
+        return new CsvImporter(dbManager).importFile(file, inserted -> {
+            if (resident != null) {
+                synchronized (writeLock) {
+                    inserted.forEach(this::remember);
+                }
+            }
+        });
+    }
+
+    /**
+     * Exports the whole inventory to a CSV or JSON Lines file; see {@link InventoryExporter}.
+     * The format follows the file name (".csv" or ".jsonl", gzip-compressed when it ends in ".gz").
+     * Queued write-behind changes are flushed first so the export matches what the manager shows.
+     * @param file The file to write.
+     * @return The export summary, including throughput.
+     * @throws IOException if the queued changes cannot be saved or the file cannot be written.
+     */
+    public ExportResult exportInventory(Path file) throws IOException {
+        if (!flush()) {
+            throw new IOException("Could not save pending changes; the inventory was not exported.");
         }
+        return InventoryExporter.forFile(dbManager, file).exportTo(file);
     }
 
     /**
      * Generates a report listing all bracelets whose quantity falls below
      * a user-specified threshold, fetching data from the database.
+     * The filtering and sorting happen in SQL against the quantity index, so only
+     * the low-stock rows are read. A resident manager answers from its in-memory quantity index instead.
      * @param thresholdStr The string representation of the threshold quantity.
-     * @return A list of Bracelet objects that are below the threshold, or an empty list if none.
+     * @return A list of InventoryItem objects that are below the threshold (sorted by quantity), or an empty list if none.
      * If the threshold input is invalid, returns null.
      */
-    public List<Bracelet> generateLowStockReport(String thresholdStr) {
+    public List<InventoryItem> generateLowStockReport(String thresholdStr) {
         int threshold = validateQuantity(thresholdStr);
         if (threshold == -1) {
             return null; // Indicate invalid threshold
         }
 
-        List<Bracelet> allBracelets = dbManager.selectAllBracelets(); // Get all from database
-        List<Bracelet> lowStockItems = new ArrayList<>();
-        for (Bracelet bracelet : allBracelets) {
-            if (bracelet.getQuantity() < threshold) {
-                lowStockItems.add(bracelet);
-            }
+        if (byQuantity != null) {
+            // Everything ordered before (threshold, "") has a quantity below the threshold
+            InventoryItem bound = new InventoryItem("", "", threshold, 0.0, "");
+            return new ArrayList<>(byQuantity.headSet(bound, false));
+        }
+        return dbManager.selectBelowQuantity(threshold, 0); // Already sorted by quantity
+    }
+
+    /**
+     * Searches the bracelet descriptions, best matches first; see {@link DatabaseManager#searchBracelets}.
+     * Each word may be a prefix and all words must match, so "blu bead" finds "Blue beaded anklet".
+     * The search runs against the full-text index rather than scanning the inventory. A resident
+     * manager returns its own copy of each match, so unsaved write-behind changes are shown.
+     * @param query The words to search for.
+     * @param limit The maximum number of results.
+     * @return The matching bracelets, or an empty list if the query has no words or nothing matches.
+     */
+    public List<InventoryItem> searchBracelets(String query, int limit) {
+        List<InventoryItem> matches = dbManager.searchBracelets(query, limit);
+        if (resident != null) {
+            matches.replaceAll(match -> resident.getOrDefault(match.getId(), match));
         }
-        // Sort low stock items by quantity for better readability
-        Collections.sort(lowStockItems, (b1, b2) -> Integer.compare(b1.getQuantity(), b2.getQuantity()));
-        return lowStockItems;
+        return matches;
     }
 }
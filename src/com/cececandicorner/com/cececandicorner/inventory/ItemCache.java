@@ -0,0 +1,152 @@
+package com.cececandicorner.inventory;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ItemCache.java
+ * A bounded, least-recently-used read-through cache of bracelets keyed by ID, used by the
+ * DatabaseManager in front of its lookups by ID. Unknown IDs are cached too (as an empty entry),
+ * so repeatedly checking an ID that does not exist does not reach the database either.
+ * Writers must call {@link #invalidate(String)} after changing a row. Every invalidation bumps a
+ * generation counter, and a load that overlapped with an invalidation is returned to its caller
+ * but not stored, so a slow reader can never put an outdated row back into the cache.
+ * Writes that get the new row back from the database (UPDATE ... RETURNING) can store it with
+ * {@link #beginWrite()} and {@link #endWrite(String, InventoryItem, long)}, so the next lookup is a hit.
+ */
+final class ItemCache {
+
+    /** Reads one bracelet from the database on a cache miss. */
+    @FunctionalInterface
+    interface Loader {
+        /**
+         * Loads a bracelet.
+         * @param id The ID to load.
+         * @return The bracelet, or null if no bracelet has this ID.
+         * @throws SQLException if the database could not be read; nothing is cached in that case.
+         */
+        InventoryItem load(String id) throws SQLException;
+    }
+
+    private final int maxSize;
+    private final Map<String, Optional<InventoryItem>> entries;
+    private long generation; // Guarded by this
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+
+    /**
+     * Creates an empty cache.
+     * @param maxSize The maximum number of IDs (known or unknown) kept; 0 disables caching.
+     */
+    ItemCache(int maxSize) {
+        this.maxSize = maxSize;
+        // Access-ordered map: the eldest entry is the least recently used ID
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Optional<InventoryItem>> eldest) {
+                if (size() > maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Checks whether this cache stores anything at all.
+     * @return true if the cache has room for at least one entry.
+     */
+    boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * Returns the cached bracelet for an ID, loading it on a miss.
+     * The loader runs without holding the cache lock, so a slow load does not block hits.
+     * @param id     The ID to look up.
+     * @param loader Reads the bracelet from the database on a miss.
+     * @return The bracelet, or null if no bracelet has this ID.
+     * @throws SQLException if the loader fails.
+     */
+    InventoryItem get(String id, Loader loader) throws SQLException {
+        long seenGeneration;
+        synchronized (this) {
+            Optional<InventoryItem> cached = entries.get(id);
+            if (cached != null) {
+                hits.increment();
+                return cached.orElse(null);
+            }
+            seenGeneration = generation;
+        }
+        misses.increment();
+        long start = System.nanoTime();
+        InventoryItem item = loader.load(id);
+        loadNanos.add(System.nanoTime() - start);
+        synchronized (this) {
+            if (maxSize > 0 && generation == seenGeneration) { // No write happened while we were loading
+                entries.put(id, Optional.ofNullable(item));
+            }
+        }
+        return item;
+    }
+
+    /**
+     * Drops one ID from the cache. Call after the row has been written or deleted.
+     * @param id The ID whose row changed.
+     */
+    synchronized void invalidate(String id) {
+        generation++;
+        entries.remove(id);
+    }
+
+    /**
+     * Starts a write whose result may be cached. Pass the returned ticket to {@link #endWrite}.
+     * @return The current generation.
+     */
+    synchronized long beginWrite() {
+        return generation;
+    }
+
+    /**
+     * Finishes a write: invalidates the ID, then caches the row the write returned, but only if
+     * no other write was finished in between (otherwise it is unknown which row is newer).
+     * @param id     The ID that was written.
+     * @param stored The row as the write left it, or null if the write did not return one.
+     * @param ticket The value returned by {@link #beginWrite()} before the write started.
+     */
+    synchronized void endWrite(String id, InventoryItem stored, long ticket) {
+        invalidate(id);
+        if (stored != null && maxSize > 0 && generation == ticket + 1) {
+            entries.put(id, Optional.of(stored));
+        }
+    }
+
+    /**
+     * Drops every entry. Used after bulk writes, where invalidating row by row would cost more.
+     */
+    synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    /**
+     * Takes a snapshot of the cache statistics.
+     * @return The current statistics.
+     */
+    ItemCacheStats getStats() {
+        int size;
+        synchronized (this) {
+            size = entries.size();
+        }
+        long loads = misses.sum();
+        double averageLoadMillis = loads == 0 ? 0.0 : loadNanos.sum() / 1_000_000.0 / loads;
+        return new ItemCacheStats(maxSize, size, hits.sum(), loads, evictions.sum(), averageLoadMillis);
+    }
+}
@@ -0,0 +1,25 @@
+package com.cececandicorner.inventory;
+
+/**
+ * ItemCacheStats.java
+ * An immutable snapshot of the DatabaseManager's bracelet lookup cache, used to choose a cache
+ * size. Obtain one through {@link DatabaseManager#getItemCacheStats()}.
+ * @param maxSize           The configured maximum number of cached IDs (0 means caching is off).
+ * @param size              IDs currently cached, including IDs cached as not existing.
+ * @param hits              Lookups answered from the cache.
+ * @param misses            Lookups that had to read the database.
+ * @param evictions         Entries dropped because the cache was full.
+ * @param averageLoadMillis Average time a miss spent reading the database, in milliseconds.
+ */
+public record ItemCacheStats(int maxSize, int size, long hits, long misses, long evictions,
+                             double averageLoadMillis) {
+
+    /**
+     * Calculates the fraction of lookups served from the cache.
+     * @return The hit rate between 0.0 and 1.0, or 0.0 if nothing was looked up yet.
+     */
+    public double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
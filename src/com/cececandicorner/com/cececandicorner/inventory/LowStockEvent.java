@@ -0,0 +1,21 @@
+package com.cececandicorner.inventory;
+
+/**
+ * LowStockEvent.java
+ * Sent to a {@link LowStockListener} when a bracelet's quantity crosses a low-stock threshold,
+ * either falling below it after a sale or climbing back to it after a restock.
+ * "Below" means strictly less than the threshold, the same rule the low stock report uses.
+ * @param item             The bracelet as it is now stored.
+ * @param previousQuantity The quantity before the change.
+ * @param threshold        The threshold (global or the bracelet's reorder point) that was crossed.
+ */
+public record LowStockEvent(InventoryItem item, int previousQuantity, int threshold) {
+
+    /**
+     * Checks which way the threshold was crossed.
+     * @return true if the bracelet is now below the threshold, false if it has been restocked to it or above.
+     */
+    public boolean isLow() {
+        return item.getQuantity() < threshold;
+    }
+}
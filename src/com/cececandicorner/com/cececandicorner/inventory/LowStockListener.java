@@ -0,0 +1,19 @@
+package com.cececandicorner.inventory;
+
+/**
+ * LowStockListener.java
+ * Receives low-stock threshold crossings from an {@link InventoryManager}.
+ * Listeners are called after the change has been written to the database, one event at a time and
+ * in the order the changes were made, on the thread of a writer (usually the one that made the change).
+ * Other writers are not held up while a listener runs, but a GUI listener should still hand the event
+ * to its own thread.
+ */
+@FunctionalInterface
+public interface LowStockListener {
+
+    /**
+     * Called once each time a bracelet's quantity crosses a threshold this listener is registered for.
+     * @param event The bracelet, its previous quantity and the threshold that was crossed.
+     */
+    void onThresholdCrossed(LowStockEvent event);
+}
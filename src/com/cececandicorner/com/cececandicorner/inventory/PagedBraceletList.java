@@ -0,0 +1,467 @@
+package com.cececandicorner.inventory;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+
+/**
+ * PagedBraceletList.java
+ * An ObservableList for the inventory TableView that holds only a window of the catalog.
+ * The rows are split into fixed-size pages that are fetched from the database the first time the
+ * table asks for one of their rows, which the virtualized TableView only does for rows on screen.
+ * Until its page arrives a row reads as null and the table draws it empty; the arrival is announced
+ * as a change so the table redraws those rows. The next page in the scrolling direction is fetched
+ * ahead, at most a fixed number of pages is kept (the least recently used page is dropped), and
+ * opening the table costs one count and one page however large the catalog is.
+ * Like {@link BraceletViewList}, a page stores plain {@link InventoryItem}s and creates the
+ * observable {@link Bracelet} for a row only when it is displayed. An added or removed bracelet is
+ * inserted into or removed from its loaded page and announced as a single added or removed row;
+ * only the loaded pages after it, whose rows have shifted, are dropped and fetched again.
+ * Only used on the FX thread; pages are loaded on the given loader executor.
+ */
+final class PagedBraceletList extends ObservableListBase<Bracelet> {
+
+    /** Loads one page of bracelets; called on a loader thread. */
+    @FunctionalInterface
+    interface PageSource {
+        /**
+         * Loads the bracelets of one page.
+         * @param offset   The position of the first row of the page.
+         * @param afterId  The ID of the last row of the previous page, if that page is loaded
+         *                 (so the page can be read with keyset pagination), otherwise null.
+         * @param pageSize The number of rows on a page.
+         * @return The bracelets of the page, in order.
+         */
+        List<InventoryItem> load(int offset, String afterId, int pageSize);
+    }
+
+    /** One loaded page: the stored values, plus the observable views of the rows displayed so far (null otherwise). */
+    private static final class Page {
+        private final List<InventoryItem> items;
+        private final List<Bracelet> views;
+
+        Page(List<InventoryItem> items) {
+            this.items = new ArrayList<>(items);
+            this.views = new ArrayList<>(Collections.nCopies(items.size(), null));
+        }
+
+        Bracelet view(int index) {
+            Bracelet view = views.get(index);
+            if (view == null) {
+                view = new Bracelet(items.get(index));
+                views.set(index, view);
+            }
+            return view;
+        }
+    }
+
+    /** The rows as they read at one moment: the views of the loaded pages, copied, by page number. */
+    private static final class Snapshot extends AbstractList<Bracelet> {
+        private final NavigableMap<Integer, List<Bracelet>> views = new TreeMap<>();
+        private final int pageSize;
+        private final int size;
+
+        Snapshot(Map<Integer, Page> pages, int pageSize, int size) {
+            for (Map.Entry<Integer, Page> entry : pages.entrySet()) {
+                views.put(entry.getKey(), new ArrayList<>(entry.getValue().views));
+            }
+            this.pageSize = pageSize;
+            this.size = size;
+        }
+
+        @Override
+        public Bracelet get(int index) {
+            List<Bracelet> page = views.get(index / pageSize);
+            int row = index % pageSize;
+            return page == null || row >= page.size() ? null : page.get(row);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private static final Comparator<InventoryItem> BY_ID = Comparator.comparing(InventoryItem::getId);
+    private static final Comparator<InventoryItem> BY_QUANTITY =
+            Comparator.comparingInt(InventoryItem::getQuantity).thenComparing(InventoryItem::getId);
+
+    private final int pageSize;
+    private final int maxPages;
+    private final Executor loader;
+    private final Executor fxThread;
+    private final Map<Integer, Page> pages = new LinkedHashMap<>(16, 0.75f, true); // Least recently used first
+    private final Set<Integer> loading = new HashSet<>();
+    private final Map<String, InventoryItem> editedWhileLoading = new HashMap<>(); // Applied to pages read before the edit
+    private DatabaseManager.SortKey order;
+    private PageSource source;
+    private int size;
+    private int generation; // Bumped by reload(), so pages requested before it are discarded
+    private int lastMissedPage; // The last page asked for before it was loaded
+    private int direction = 1; // The direction of that miss from the one before: 1 down, -1 up
+
+    /**
+     * Creates a list; no page is loaded until the table asks for a row.
+     * @param size     The number of rows.
+     * @param pageSize The number of rows fetched together, must be at least 1.
+     * @param maxPages The number of pages kept in memory, must be at least 2 so a page can be read ahead.
+     * @param order    The order the source reads the rows in.
+     * @param source   Loads the pages.
+     * @param loader   Runs the page loads, off the FX thread.
+     * @param fxThread Runs work on the FX thread, normally {@code Platform::runLater}.
+     */
+    PagedBraceletList(int size, int pageSize, int maxPages, DatabaseManager.SortKey order, PageSource source,
+                      Executor loader, Executor fxThread) {
+        if (pageSize < 1 || maxPages < 2) {
+            throw new IllegalArgumentException("Page size must be at least 1 and the window at least 2 pages.");
+        }
+        this.size = size;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.order = order;
+        this.source = source;
+        this.loader = loader;
+        this.fxThread = fxThread;
+    }
+
+    /**
+     * Returns the observable view of a row, or null while its page is being fetched.
+     * Also requests the row's page and reads one page ahead in the direction the table is moving.
+     * @param index The row index.
+     * @return The Bracelet for that row, or null if it is not loaded yet.
+     */
+    @Override
+    public Bracelet get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        int pageNumber = index / pageSize;
+        Page page = pages.get(pageNumber);
+        // Each layout pass reads the visible rows top to bottom, so only misses show where the user is heading
+        if (page == null && pageNumber != lastMissedPage) {
+            direction = pageNumber > lastMissedPage ? 1 : -1;
+            lastMissedPage = pageNumber;
+        }
+        request(pageNumber);
+        request(pageNumber + direction);
+        int row = index - pageNumber * pageSize;
+        return page == null || row >= page.items.size() ? null : page.view(row); // A short page means rows were deleted
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Brings a displayed row in line with the database after an edit. A changed bracelet that keeps
+     * its position has its loaded row, and its Bracelet properties, updated in place. An added or
+     * removed bracelet is inserted into or removed from its loaded page and announced as one added or
+     * removed row; the loaded pages after it have shifted by a row and are dropped. If its position
+     * falls between loaded pages it is not known exactly, but every row there reads null, so the row
+     * is announced at the edge of that gap. Only a quantity change while the rows are in quantity
+     * order moves a bracelet, and then the pages are reloaded.
+     * @param id       The ID of the bracelet that changed.
+     * @param previous The item as it was stored before the edit, or null if it did not exist.
+     * @param current  The item as it is now stored, or null if it no longer exists.
+     */
+    void patch(String id, InventoryItem previous, InventoryItem current) {
+        if (previous != null && current != null) {
+            if (order == DatabaseManager.SortKey.QUANTITY && previous.getQuantity() != current.getQuantity()) {
+                reload(order, source, size);
+            } else {
+                update(id, current);
+            }
+        } else if (current != null) {
+            insert(current);
+        } else if (previous != null) {
+            remove(previous);
+        }
+    }
+
+    private void update(String id, InventoryItem current) {
+        if (!loading.isEmpty()) {
+            editedWhileLoading.put(id, current);
+        }
+        for (Page page : pages.values()) {
+            for (int i = 0; i < page.items.size(); i++) {
+                if (page.items.get(i).getId().equals(id)) {
+                    page.items.set(i, current);
+                    if (page.views.get(i) != null) {
+                        page.views.get(i).update(current);
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    private void insert(InventoryItem item) {
+        Snapshot before = snapshot();
+        int index = position(item);
+        int pageNumber = index / pageSize;
+        Page page = pages.get(pageNumber);
+        int row = index - pageNumber * pageSize;
+        Page previous = pages.get(pageNumber - 1);
+        // Known exactly unless it is at the edge of a run of null rows: before a page whose previous page
+        // is not fully loaded, or after a page left short by a removal
+        boolean exact = page != null && (row < page.items.size() || index == size)
+                && (row > 0 || pageNumber == 0 || previous != null && previous.items.size() == pageSize);
+        if (exact) {
+            page.items.add(row, item);
+            page.views.add(row, null);
+            if (page.items.size() > pageSize) { // The last row now belongs to the next page
+                page.items.remove(pageSize);
+                page.views.remove(pageSize);
+            }
+        }
+        size++;
+        dropRowsFrom(exact ? (pageNumber + 1) * pageSize : index);
+        beginChange();
+        nextAdd(index, index + 1);
+        announceShift(before, index, 1);
+        endChange();
+    }
+
+    private void remove(InventoryItem item) {
+        Snapshot before = snapshot();
+        int index = -1;
+        for (Map.Entry<Integer, Page> entry : pages.entrySet()) {
+            int row = indexOfId(entry.getValue(), item.getId());
+            if (row >= 0) {
+                index = entry.getKey() * pageSize + row;
+                break;
+            }
+        }
+        int firstShifted; // The first row whose loaded value no longer holds
+        if (index >= 0) {
+            int pageNumber = index / pageSize;
+            Page page = pages.get(pageNumber);
+            page.items.remove(index - pageNumber * pageSize);
+            page.views.remove(index - pageNumber * pageSize);
+            Page next = pages.get(pageNumber + 1);
+            if (next != null && !next.items.isEmpty()) { // Keep the page full with the next page's first row
+                page.items.add(next.items.get(0));
+                page.views.add(next.views.get(0));
+            }
+            firstShifted = (pageNumber + 1) * pageSize;
+        } else {
+            // Not loaded, so it sat in a run of null rows: just before the next loaded row, or after the last one
+            NavigableMap<Integer, Page> byNumber = new TreeMap<>(pages);
+            int next = position(item);
+            index = Math.min(isLoaded(byNumber, next) ? next - 1 : next, size - 1);
+            if (index < 0 || isLoaded(byNumber, index)) {
+                reload(order, source, size - 1); // Not where it should be; the loaded rows cannot be trusted
+                return;
+            }
+            firstShifted = index;
+        }
+        size--;
+        dropRowsFrom(firstShifted);
+        beginChange();
+        nextRemove(index, before.get(index));
+        announceShift(before, index + 1, -1);
+        endChange();
+    }
+
+    // Where an item goes in the current order, judged from the loaded pages
+    private int position(InventoryItem item) {
+        Comparator<InventoryItem> comparator = order == DatabaseManager.SortKey.QUANTITY ? BY_QUANTITY : BY_ID;
+        int after = 0; // The first row the item is known to come after
+        for (Map.Entry<Integer, Page> entry : new TreeMap<>(pages).entrySet()) { // Copied so the LRU order is untouched
+            int pageNumber = entry.getKey();
+            List<InventoryItem> items = entry.getValue().items;
+            if (items.isEmpty()) {
+                continue;
+            }
+            int row = Collections.binarySearch(items, item, comparator);
+            int insertAt = row >= 0 ? row : -row - 1;
+            if (insertAt < items.size()) {
+                return pageNumber * pageSize + insertAt;
+            }
+            after = pageNumber * pageSize + items.size();
+        }
+        return Math.min(after, size);
+    }
+
+    private static int indexOfId(Page page, String id) {
+        for (int i = 0; i < page.items.size(); i++) {
+            if (page.items.get(i).getId().equals(id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Drops the loaded rows that have shifted, and any loads still running, which used the old offsets.
+    // A page cut short this way is fetched again when the table next asks for one of its rows.
+    private void dropRowsFrom(int firstRow) {
+        int firstPage = firstRow / pageSize;
+        Page page = pages.get(firstPage);
+        int keep = firstRow - firstPage * pageSize;
+        if (page != null && keep > 0) {
+            if (keep < page.items.size()) {
+                page.items.subList(keep, page.items.size()).clear();
+                page.views.subList(keep, page.views.size()).clear();
+            }
+            pages.keySet().removeIf(pageNumber -> pageNumber > firstPage);
+        } else {
+            pages.keySet().removeIf(pageNumber -> pageNumber >= firstPage);
+        }
+        loading.clear();
+        editedWhileLoading.clear();
+        generation++;
+    }
+
+    // Announces the loaded rows that read differently now that the rows from 'from' on moved by 'shift'
+    private void announceShift(Snapshot before, int from, int shift) {
+        NavigableMap<Integer, Page> byNumber = new TreeMap<>(pages); // Read without touching the LRU order
+        int runStart = -1;
+        List<Bracelet> removed = new ArrayList<>();
+        for (Map.Entry<Integer, List<Bracelet>> entry : before.views.entrySet()) {
+            List<Bracelet> views = entry.getValue();
+            for (int row = 0; row < views.size(); row++) {
+                int oldIndex = entry.getKey() * pageSize + row;
+                int newIndex = oldIndex + shift;
+                Bracelet was = views.get(row);
+                if (oldIndex < from || newIndex >= size || was == null || was == peek(byNumber, newIndex)) {
+                    continue;
+                }
+                if (runStart >= 0 && newIndex != runStart + removed.size()) {
+                    nextReplace(runStart, runStart + removed.size(), removed);
+                    removed = new ArrayList<>();
+                }
+                if (removed.isEmpty()) {
+                    runStart = newIndex;
+                }
+                removed.add(was);
+            }
+        }
+        if (!removed.isEmpty()) {
+            nextReplace(runStart, runStart + removed.size(), removed);
+        }
+    }
+
+    private boolean isLoaded(Map<Integer, Page> byNumber, int index) {
+        Page page = byNumber.get(index / pageSize);
+        return index >= 0 && index < size && page != null && index % pageSize < page.items.size();
+    }
+
+    // What a row reads now, without requesting its page or creating its view
+    private Bracelet peek(Map<Integer, Page> byNumber, int index) {
+        Page page = byNumber.get(index / pageSize);
+        int row = index % pageSize;
+        return page == null || row >= page.items.size() ? null : page.views.get(row);
+    }
+
+    /**
+     * Drops every page and starts over, for example with a new sort order or after a bracelet moved
+     * in quantity order. Pages still being fetched are discarded when they arrive.
+     * @param newOrder  The order the new source reads the rows in.
+     * @param newSource Loads the pages from now on.
+     * @param newSize   The number of rows.
+     */
+    void reload(DatabaseManager.SortKey newOrder, PageSource newSource, int newSize) {
+        List<Bracelet> removed = snapshot();
+        pages.clear();
+        loading.clear();
+        editedWhileLoading.clear();
+        generation++;
+        lastMissedPage = 0;
+        direction = 1;
+        order = newOrder;
+        source = newSource;
+        size = newSize;
+        beginChange();
+        nextReplace(0, size, removed);
+        endChange();
+    }
+
+    private void request(int pageNumber) {
+        if (pageNumber < 0 || pageNumber * (long) pageSize >= size) {
+            return;
+        }
+        Page page = pages.get(pageNumber);
+        // A loaded page is fetched again only if a removal left it short of rows
+        if (page != null && page.items.size() == Math.min(pageSize, size - pageNumber * pageSize)
+                || !loading.add(pageNumber)) {
+            return;
+        }
+        Page previous = pages.get(pageNumber - 1);
+        String afterId = previous != null && previous.items.size() == pageSize
+                ? previous.items.get(pageSize - 1).getId() : null;
+        int requestedGeneration = generation;
+        PageSource pageSource = source;
+        loader.execute(() -> {
+            try {
+                List<InventoryItem> items = pageSource.load(pageNumber * pageSize, afterId, pageSize);
+                fxThread.execute(() -> loaded(requestedGeneration, pageNumber, items));
+            } catch (RuntimeException e) {
+                System.err.println("Error loading inventory page " + pageNumber + ": " + e.getMessage());
+                fxThread.execute(() -> {
+                    if (requestedGeneration == generation) {
+                        loading.remove(pageNumber); // Try again the next time the table asks for a row
+                    }
+                });
+            }
+        });
+    }
+
+    private void loaded(int requestedGeneration, int pageNumber, List<InventoryItem> items) {
+        if (requestedGeneration != generation) {
+            return; // Requested before a reload
+        }
+        loading.remove(pageNumber);
+        Page page = new Page(items);
+        if (!editedWhileLoading.isEmpty()) {
+            page.items.replaceAll(item -> editedWhileLoading.getOrDefault(item.getId(), item));
+            if (loading.isEmpty()) {
+                editedWhileLoading.clear();
+            }
+        }
+        Page replaced = pages.remove(pageNumber);
+        beginChange();
+        while (pages.size() >= maxPages) {
+            Iterator<Map.Entry<Integer, Page>> eldest = pages.entrySet().iterator();
+            Map.Entry<Integer, Page> evicted = eldest.next();
+            eldest.remove();
+            int from = evicted.getKey() * pageSize;
+            int to = Math.min(size, from + pageSize);
+            nextReplace(from, to, viewsOf(evicted.getValue(), to - from));
+        }
+        pages.put(pageNumber, page);
+        int from = pageNumber * pageSize;
+        int to = Math.min(size, from + pageSize);
+        nextReplace(from, to, replaced == null
+                ? Collections.nCopies(to - from, null) // The rows read as null until now
+                : viewsOf(replaced, to - from));
+        endChange();
+    }
+
+    // The rows of a dropped page as they last read: their views if displayed, otherwise null
+    private static List<Bracelet> viewsOf(Page page, int rows) {
+        List<Bracelet> views = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            views.add(i < page.views.size() ? page.views.get(i) : null);
+        }
+        return views;
+    }
+
+    // The current contents, for the removed side of a change
+    private Snapshot snapshot() {
+        return new Snapshot(pages, pageSize, size);
+    }
+}
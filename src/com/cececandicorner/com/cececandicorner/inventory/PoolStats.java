@@ -0,0 +1,31 @@
+package com.cececandicorner.inventory;
+
+/**
+ * PoolStats.java
+ * An immutable snapshot of the DatabaseManager's connection pool, used to tune the pool size
+ * and timeouts. Obtain one through {@link DatabaseManager#getPoolStats()}.
+ * @param maxSize            The configured maximum number of connections.
+ * @param active             Connections currently borrowed by callers.
+ * @param idle               Open connections waiting in the pool.
+ * @param borrowCount        Total number of successful borrows since the pool was created.
+ * @param averageWaitMillis  Average time a caller waited for a connection, in milliseconds.
+ * @param maxWaitMillis      Longest time a caller waited for a connection, in milliseconds.
+ * @param created            Physical connections opened since the pool was created.
+ * @param evicted            Physical connections closed because they were idle too long or failed validation.
+ * @param statementCacheHits   Prepared statements reused from a connection's statement cache.
+ * @param statementCacheMisses Prepared statements that had to be compiled by SQLite.
+ */
+public record PoolStats(int maxSize, int active, int idle, long borrowCount,
+                        double averageWaitMillis, double maxWaitMillis,
+                        long created, long evicted,
+                        long statementCacheHits, long statementCacheMisses) {
+
+    /**
+     * Calculates the fraction of statement lookups served from the cache.
+     * @return The hit rate between 0.0 and 1.0, or 0.0 if no statements were prepared yet.
+     */
+    public double statementCacheHitRate() {
+        long lookups = statementCacheHits + statementCacheMisses;
+        return lookups == 0 ? 0.0 : (double) statementCacheHits / lookups;
+    }
+}
@@ -0,0 +1,118 @@
+package com.cececandicorner.inventory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * PooledConnection.java
+ * A physical SQLite connection on loan from the {@link ConnectionPool}.
+ * Closing a PooledConnection does not close the underlying JDBC connection; it hands it
+ * back to the pool so the next caller can reuse it. This lets DatabaseManager keep its
+ * try-with-resources style while avoiding a new file open on every call.
+ * Each connection also carries its own {@link StatementCache}, so statements prepared through
+ * {@link #prepare(String)} survive across borrows.
+ */
+final class PooledConnection implements AutoCloseable {
+
+    private final ConnectionPool pool;
+    private final Connection connection;
+    private final StatementCache statementCache;
+
+    /** Guards against returning the same connection to the pool twice. */
+    private final AtomicBoolean borrowed = new AtomicBoolean();
+
+    /** System.nanoTime() of the last time this connection was returned to the pool. */
+    private volatile long lastReturnedNanos = System.nanoTime();
+
+    /**
+     * Wraps a freshly opened physical connection.
+     * @param pool       The pool that owns this connection.
+     * @param connection The physical JDBC connection.
+     * @param statementCache The statement cache bound to the physical connection.
+     */
+    PooledConnection(ConnectionPool pool, Connection connection, StatementCache statementCache) {
+        this.pool = pool;
+        this.connection = connection;
+        this.statementCache = statementCache;
+    }
+
+    /**
+     * Retrieves the underlying JDBC connection. Callers must not close it directly.
+     * @return The physical connection.
+     */
+    Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Returns a cached prepared statement for the given SQL, preparing it on first use.
+     * The statement is owned by this connection's cache and must not be closed by the caller;
+     * only the ResultSets it produces should be closed.
+     * @param sql The SQL text to prepare.
+     * @return A prepared statement with its parameters cleared.
+     * @throws SQLException if the statement cannot be prepared.
+     */
+    PreparedStatement prepare(String sql) throws SQLException {
+        return statementCache.prepare(sql);
+    }
+
+    /**
+     * Marks this connection as handed out to a caller.
+     */
+    void markBorrowed() {
+        borrowed.set(true);
+    }
+
+    /**
+     * Retrieves when this connection was last returned to the pool.
+     * @return The System.nanoTime() timestamp of the last return.
+     */
+    long getLastReturnedNanos() {
+        return lastReturnedNanos;
+    }
+
+    /**
+     * Restores the connection to a clean state before it goes back into the pool.
+     * Any transaction left open by the caller is rolled back.
+     * @return true if the connection can be reused, false if it should be discarded.
+     */
+    boolean reset() {
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            lastReturnedNanos = System.nanoTime();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Closes the physical connection. Only the pool calls this.
+     */
+    void closePhysical() {
+        statementCache.clear();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled database connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns this connection to the pool. Calling close more than once has no further effect.
+     */
+    @Override
+    public void close() {
+        if (borrowed.compareAndSet(true, false)) {
+            pool.release(this);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.cececandicorner.inventory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * PrefixIndex.java
+ * An in-memory index from the words of each bracelet's ID and description to the bracelets,
+ * used by the table's live filter. The words are kept in a sorted map, so every word starting with
+ * a typed prefix is one contiguous range, and each word lists the bracelets using it by number;
+ * a lookup ORs those numbers into a bit set per term and ANDs the terms together. Nothing is
+ * scanned row by row and the database is never queried.
+ * A bracelet's words are its whole ID, the letter-and-digit parts of its ID, and the letter-and-digit
+ * parts of its description, all lower-cased; "BR-001 Blue, beaded" is indexed under
+ * "br-001", "br", "001", "blue" and "beaded".
+ * Re-indexing a bracelet gives it a new number and retires the old one instead of editing the
+ * word lists, so edits are cheap; retired numbers are dropped when the index is rebuilt on reload.
+ * Not thread-safe; the GUI only uses it on the FX thread.
+ */
+final class PrefixIndex {
+
+    /** A growable list of bracelet numbers, in the order they were added. */
+    private static final class Postings {
+        private int[] numbers = new int[2];
+        private int size;
+
+        void add(int number) {
+            if (size == numbers.length) {
+                numbers = Arrays.copyOf(numbers, size * 2);
+            }
+            numbers[size++] = number;
+        }
+    }
+
+    /**
+     * The bracelets matching a filter. Kept current by the GUI as rows are patched with {@link #set}.
+     */
+    final class Matches {
+        private final BitSet numbers;
+
+        private Matches(BitSet numbers) {
+            this.numbers = numbers;
+        }
+
+        /**
+         * Checks whether a bracelet matched.
+         * @param id The bracelet ID.
+         * @return true if it matched.
+         */
+        boolean contains(String id) {
+            Integer number = numberById.get(id);
+            return number != null && numbers.get(number);
+        }
+
+        /**
+         * Records whether a re-indexed bracelet now matches.
+         * @param id      The bracelet ID, already re-indexed with {@link #update}.
+         * @param matches Whether it matches the filter.
+         */
+        void set(String id, boolean matches) {
+            Integer number = numberById.get(id);
+            if (number != null) {
+                numbers.set(number, matches);
+            }
+        }
+    }
+
+    private final NavigableMap<String, Postings> postingsByWord = new TreeMap<>();
+    private final Map<String, Integer> numberById = new HashMap<>();
+    private final BitSet live = new BitSet(); // Numbers not yet retired
+    private int nextNumber;
+
+    /**
+     * Indexes a bracelet, replacing any earlier entry for its ID.
+     * @param item The bracelet to add.
+     */
+    void add(InventoryItem item) {
+        int number = nextNumber++;
+        Integer previous = numberById.put(item.getId(), number);
+        if (previous != null) {
+            live.clear(previous);
+        }
+        live.set(number);
+        for (String word : words(item)) {
+            postingsByWord.computeIfAbsent(word, w -> new Postings()).add(number);
+        }
+    }
+
+    /**
+     * Re-indexes a bracelet after an edit, add or removal.
+     * @param id      The bracelet ID.
+     * @param current The bracelet as it is now, or null if it was removed.
+     */
+    void update(String id, InventoryItem current) {
+        if (current != null) {
+            add(current);
+        } else {
+            Integer previous = numberById.remove(id);
+            if (previous != null) {
+                live.clear(previous);
+            }
+        }
+    }
+
+    /**
+     * Finds the bracelets matching every term: for each term, some word of the bracelet must start with it.
+     * @param terms The terms from {@link #terms(String)}; must not be empty.
+     * @return The matching bracelets.
+     */
+    Matches search(List<String> terms) {
+        BitSet matches = (BitSet) live.clone();
+        for (String term : terms) {
+            BitSet termMatches = new BitSet(nextNumber);
+            for (Postings postings : wordsStartingWith(term).values()) {
+                for (int i = 0; i < postings.size; i++) {
+                    termMatches.set(postings.numbers[i]);
+                }
+            }
+            matches.and(termMatches);
+            if (matches.isEmpty()) {
+                break;
+            }
+        }
+        return new Matches(matches);
+    }
+
+    private Map<String, Postings> wordsStartingWith(String prefix) {
+        return postingsByWord.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * Checks one bracelet against the terms without using the index, with the same rules as {@link #search}.
+     * @param item  The bracelet to check.
+     * @param terms The terms from {@link #terms(String)}.
+     * @return true if every term is a prefix of one of the bracelet's words.
+     */
+    static boolean matches(InventoryItem item, List<String> terms) {
+        Collection<String> words = words(item);
+        for (String term : terms) {
+            boolean found = false;
+            for (String word : words) {
+                if (word.startsWith(term)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Splits filter text into lower-case terms at whitespace, trimming punctuation from the ends of each
+     * term but keeping it inside, so "br-0" still matches the ID "BR-001".
+     * @param text The text typed by the user.
+     * @return The terms, or an empty list if there are none.
+     */
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String part : text.trim().toLowerCase(Locale.ROOT).split("\\s+")) {
+            int start = 0;
+            int end = part.length();
+            while (start < end && !Character.isLetterOrDigit(part.charAt(start))) {
+                start++;
+            }
+            while (end > start && !Character.isLetterOrDigit(part.charAt(end - 1))) {
+                end--;
+            }
+            if (end > start) {
+                terms.add(part.substring(start, end));
+            }
+        }
+        return terms;
+    }
+
+    private static Collection<String> words(InventoryItem item) {
+        Set<String> words = new HashSet<>();
+        String id = item.getId().toLowerCase(Locale.ROOT);
+        words.add(id);
+        addWords(id, words);
+        addWords(item.getDescription().toLowerCase(Locale.ROOT), words);
+        return words;
+    }
+
+    private static void addWords(String text, Set<String> words) {
+        int i = 0;
+        while (i < text.length()) {
+            while (i < text.length() && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < text.length() && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                words.add(text.substring(start, i));
+            }
+        }
+    }
+}
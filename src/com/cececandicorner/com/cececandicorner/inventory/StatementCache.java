@@ -0,0 +1,86 @@
+package com.cececandicorner.inventory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * StatementCache.java
+ * A bounded, least-recently-used cache of prepared statements for a single pooled connection,
+ * keyed by SQL text. SQLite compiles a statement every time it is prepared, so reusing the
+ * compiled statement for hot queries (such as lookups by ID) saves that cost on every call.
+ * A cache belongs to exactly one connection, which is only ever used by one thread at a time,
+ * so the cache itself needs no locking. Hit and miss counts are shared with the pool.
+ */
+final class StatementCache {
+
+    private final Connection connection;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final Map<String, PreparedStatement> statements;
+
+    /**
+     * Creates an empty cache for one connection.
+     * @param connection The connection the statements are prepared on.
+     * @param maxSize    The maximum number of statements kept open.
+     * @param hits       Counter incremented when a cached statement is reused.
+     * @param misses     Counter incremented when a statement has to be prepared.
+     */
+    StatementCache(Connection connection, int maxSize, LongAdder hits, LongAdder misses) {
+        this.connection = connection;
+        this.hits = hits;
+        this.misses = misses;
+        // Access-ordered map: the eldest entry is the least recently used statement
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > maxSize) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns a prepared statement for the given SQL, reusing a cached one when possible.
+     * The statement stays owned by the cache: callers must not close it.
+     * @param sql The SQL text to prepare.
+     * @return A prepared statement with its parameters cleared.
+     * @throws SQLException if the statement cannot be prepared.
+     */
+    PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement != null && !statement.isClosed()) {
+            hits.increment();
+            statement.clearParameters();
+            return statement;
+        }
+        misses.increment();
+        statement = connection.prepareStatement(sql);
+        statements.put(sql, statement);
+        return statement;
+    }
+
+    /**
+     * Closes every cached statement. Called when the underlying connection is closed.
+     */
+    void clear() {
+        for (PreparedStatement statement : statements.values()) {
+            closeQuietly(statement);
+        }
+        statements.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing cached statement: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.cececandicorner.inventory;
+
+/**
+ * UpdateResult.java
+ * The outcome of {@link InventoryManager#updateBracelet(String, BraceletPatch)}: the message for the
+ * user together with the bracelet before and after the change, so callers can show the new row
+ * without looking it up again.
+ * @param message  A message indicating the outcome (success or error).
+ * @param previous The bracelet as it was stored before the change, or null if nothing was changed.
+ * @param updated  The bracelet as it is stored now, or null if nothing was changed.
+ */
+public record UpdateResult(String message, InventoryItem previous, InventoryItem updated) {
+
+    /**
+     * Creates the result of an update that changed nothing.
+     * @param message The error or "No change" message.
+     * @return A result without rows.
+     */
+    static UpdateResult unchanged(String message) {
+        return new UpdateResult(message, null, null);
+    }
+
+    /**
+     * Checks whether the bracelet was changed.
+     * @return true if the update was applied.
+     */
+    public boolean isUpdated() {
+        return updated != null;
+    }
+
+    @Override
+    public String toString() {
+        return message;
+    }
+}
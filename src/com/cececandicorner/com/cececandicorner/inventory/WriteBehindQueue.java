@@ -0,0 +1,229 @@
+package com.cececandicorner.inventory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * WriteBehindQueue.java
+ * Collects bracelet changes that a resident InventoryManager has already applied in memory and
+ * writes them to the database later, in one transaction per flush. Changes are coalesced per ID
+ * while they wait: quantity changes are summed, and the latest price and status win, so fifty quick
+ * scans of the same bracelet become a single UPDATE.
+ * A flush happens every flush interval, as soon as the threshold of queued operations is reached,
+ * and when the queue is closed. If the oldest queued change is older than the maximum lag (for
+ * example because flushes keep failing), the writer that queues the next change flushes itself,
+ * which slows writers down instead of letting unsaved changes pile up.
+ * A change the database skips because the stock it was based on was sold elsewhere meanwhile is
+ * dropped and reported, so the owner can reload that bracelet.
+ */
+final class WriteBehindQueue implements AutoCloseable {
+
+    /** The changes waiting for one bracelet. */
+    private static final class Pending {
+        private int quantityDelta;
+        private Double price;
+        private String status;
+        private int operations;
+
+        /**
+         * Folds newer changes into this one.
+         * @param newer The changes queued after this one.
+         */
+        void merge(Pending newer) {
+            quantityDelta += newer.quantityDelta;
+            if (newer.price != null) {
+                price = newer.price;
+            }
+            if (newer.status != null) {
+                status = newer.status;
+            }
+            operations += newer.operations;
+        }
+    }
+
+    private final DatabaseManager dbManager;
+    private final int flushThreshold;
+    private final long maxLagNanos;
+    private final ScheduledExecutorService flusher;
+    private final Consumer<List<String>> onSkipped;
+
+    private Map<String, Pending> pending = new LinkedHashMap<>(); // Guarded by this
+    private int queuedOperations; // Guarded by this
+    private long oldestQueuedNanos; // Guarded by this; valid while pending is not empty
+    private final Object flushLock = new Object(); // Only one flush talks to the database at a time
+
+    /**
+     * Creates a queue and starts its background flusher.
+     * @param dbManager           The database to flush to.
+     * @param flushIntervalMillis How often queued changes are flushed.
+     * @param flushThreshold      Number of queued operations that triggers an immediate flush.
+     * @param maxLagMillis        Age of the oldest queued change at which writers must flush themselves.
+     * @param onSkipped           Told the IDs of changes the database skipped; called after the flush
+     *                            has finished, on the thread that flushed.
+     */
+    WriteBehindQueue(DatabaseManager dbManager, long flushIntervalMillis, int flushThreshold, long maxLagMillis,
+                     Consumer<List<String>> onSkipped) {
+        if (flushIntervalMillis <= 0 || flushThreshold < 1 || maxLagMillis < flushIntervalMillis) {
+            throw new IllegalArgumentException(
+                    "Flush interval and threshold must be positive, and the maximum lag at least the flush interval.");
+        }
+        this.dbManager = dbManager;
+        this.flushThreshold = flushThreshold;
+        this.maxLagNanos = TimeUnit.MILLISECONDS.toNanos(maxLagMillis);
+        this.onSkipped = onSkipped;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues the difference between two versions of a bracelet.
+     * @param before The bracelet as it was (in memory) before the change.
+     * @param after  The bracelet as it is (in memory) now.
+     */
+    void enqueue(InventoryItem before, InventoryItem after) {
+        Pending change = new Pending();
+        change.quantityDelta = after.getQuantity() - before.getQuantity();
+        if (Double.compare(before.getPrice(), after.getPrice()) != 0) {
+            change.price = after.getPrice();
+        }
+        if (!before.getStatus().equals(after.getStatus())) {
+            change.status = after.getStatus();
+        }
+        change.operations = 1;
+
+        boolean flushNow;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                oldestQueuedNanos = System.nanoTime();
+            }
+            Pending existing = pending.get(after.getId());
+            if (existing == null) {
+                pending.put(after.getId(), change);
+            } else {
+                existing.merge(change);
+            }
+            queuedOperations++;
+            flushNow = queuedOperations >= flushThreshold
+                    || System.nanoTime() - oldestQueuedNanos >= maxLagNanos;
+        }
+        if (flushNow) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes every queued change to the database in one transaction. If the transaction fails,
+     * the changes are put back in front of anything queued meanwhile and retried on the next flush.
+     * Changes the database skipped are dropped and passed to the skip handler once the flush is over.
+     * @return true if the queue was empty or the flush committed, false if it failed.
+     */
+    boolean flush() {
+        List<String> skipped;
+        synchronized (flushLock) {
+            Map<String, Pending> batch;
+            long batchOldestNanos;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return true;
+                }
+                batch = pending;
+                batchOldestNanos = oldestQueuedNanos;
+                pending = new LinkedHashMap<>();
+                queuedOperations = 0;
+            }
+
+            List<DatabaseManager.StockChange> changes = new ArrayList<>(batch.size());
+            for (Map.Entry<String, Pending> entry : batch.entrySet()) {
+                Pending change = entry.getValue();
+                changes.add(new DatabaseManager.StockChange(entry.getKey(), change.quantityDelta, change.price, change.status));
+            }
+            skipped = dbManager.applyStockChanges(changes);
+            if (skipped == null) {
+                synchronized (this) {
+                    // Older changes go first, then anything queued while we were flushing is folded in
+                    for (Map.Entry<String, Pending> entry : pending.entrySet()) {
+                        Pending older = batch.get(entry.getKey());
+                        if (older == null) {
+                            batch.put(entry.getKey(), entry.getValue());
+                        } else {
+                            older.merge(entry.getValue());
+                        }
+                    }
+                    pending = batch;
+                    queuedOperations = 0;
+                    for (Pending change : batch.values()) {
+                        queuedOperations += change.operations;
+                    }
+                    oldestQueuedNanos = batchOldestNanos;
+                }
+                return false;
+            }
+        }
+        if (!skipped.isEmpty()) {
+            // Outside flushLock, so the handler may take the owner's locks without deadlocking a writer that flushes
+            System.err.println("Error: Queued changes to bracelets " + skipped
+                    + " were not saved; the stored stock no longer allows them.");
+            onSkipped.accept(skipped);
+        }
+        return true;
+    }
+
+    /**
+     * Applies the changes still queued for a bracelet to a copy of it, for example to a copy just
+     * reloaded from the database after one of its changes was skipped.
+     * @param stored The bracelet as stored.
+     * @return The bracelet as it will be once the queued changes are saved.
+     */
+    synchronized InventoryItem withPending(InventoryItem stored) {
+        Pending change = pending.get(stored.getId());
+        if (change == null) {
+            return stored;
+        }
+        InventoryItem item = stored.withQuantity(Math.max(0, stored.getQuantity() + change.quantityDelta));
+        if (change.price != null) {
+            item = item.withPrice(change.price);
+        }
+        if (change.status != null) {
+            item = item.withStatus(change.status);
+        } else if (item.getQuantity() == 0) {
+            item = item.withStatus("Out of Stock");
+        } else if (stored.getStatus().equalsIgnoreCase("Out of Stock")) {
+            item = item.withStatus("In Stock");
+        }
+        return item;
+    }
+
+    /**
+     * Retrieves the number of operations waiting to be written (before coalescing).
+     * @return The queue depth.
+     */
+    synchronized int getQueueDepth() {
+        return queuedOperations;
+    }
+
+    /**
+     * Stops the background flusher and writes everything still queued.
+     */
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!flush()) {
+            System.err.println("Error: " + getQueueDepth() + " queued inventory changes could not be saved on shutdown.");
+        }
+    }
+}
@@ -6,9 +6,24 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 // Import all static assertion methods from JUnit
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,7 +51,8 @@ class InventoryManagerTest {
 
     @AfterEach // This method runs AFTER each test
     void tearDown() throws IOException {
-        // Clean up the temporary database file
+        // Release pooled connections, then clean up the temporary database file
+        dbManager.close();
         Files.deleteIfExists(tempDbFile);
     }
     @Test // Marks this as a test method
@@ -63,7 +79,7 @@ class InventoryManagerTest {
         manager.addBracelet(id, description, "10", "25.50");
 
         // Assert: Verify the bracelet was added correctly.
-        Bracelet addedBracelet = manager.getBraceletById(id);
+        InventoryItem addedBracelet = manager.getBraceletById(id);
 
         assertEquals(1, manager.getInventory().size(), "Inventory size should be 1.");
         assertNotNull(addedBracelet, "Added bracelet should not be null.");
@@ -121,7 +137,7 @@ class InventoryManagerTest {
         manager.updateBracelet(id, "quantity", "25");
 
         // Assert: Verify the quantity was updated correctly.
-        Bracelet updatedBracelet = manager.getBraceletById(id);
+        InventoryItem updatedBracelet = manager.getBraceletById(id);
         assertNotNull(updatedBracelet);
         assertEquals(25, updatedBracelet.getQuantity(), "Quantity should be updated to 25.");
     }
@@ -148,7 +164,7 @@ class InventoryManagerTest {
         String result = manager.updateBracelet(id, "quantity", "abc");
 
         // Assert: Verify an error message was returned and the data did not change.
-        Bracelet originalBracelet = manager.getBraceletById(id);
+        InventoryItem originalBracelet = manager.getBraceletById(id);
 
         assertTrue(result.contains("must be a valid non-negative integer"), "Error message for invalid quantity should be returned.");
         assertEquals(10, originalBracelet.getQuantity(), "Quantity should not have changed.");
@@ -181,7 +197,7 @@ class InventoryManagerTest {
         manager.updateBracelet(id, "quantity", "0");
 
         // Assert: Verify the quantity and status were automatically updated.
-        Bracelet updatedBracelet = manager.getBraceletById(id);
+        InventoryItem updatedBracelet = manager.getBraceletById(id);
         assertNotNull(updatedBracelet);
         assertEquals(0, updatedBracelet.getQuantity(), "Quantity should be updated to 0.");
         assertEquals("Out of Stock", updatedBracelet.getStatus(), "Status should be 'Out of Stock'.");
@@ -197,10 +213,564 @@ class InventoryManagerTest {
         manager.updateBracelet(id, "quantity", "15");
 
         // Assert: Verify the quantity and status were automatically updated.
-        Bracelet updatedBracelet = manager.getBraceletById(id);
+        InventoryItem updatedBracelet = manager.getBraceletById(id);
         assertNotNull(updatedBracelet);
         assertEquals(15, updatedBracelet.getQuantity(), "Quantity should be updated to 15.");
         assertEquals("In Stock", updatedBracelet.getStatus(), "Status should be 'In Stock'.");
     }
+    @Test
+    @DisplayName("Test: Bulk insert reports inserted, duplicate and invalid rows")
+    void shouldBulkInsertWithPerRowOutcomes() {
+        // Arrange: One bracelet already exists in the database.
+        manager.addBracelet("001", "Existing Bracelet", "5", "10.00");
+        List<InventoryItem> rows = List.of(
+                new InventoryItem("001", "Duplicate of existing", 1, 1.00, "In Stock"),
+                new InventoryItem("002", "New Bracelet", 3, 12.00, "In Stock"),
+                new InventoryItem("002", "Duplicate within batch", 4, 12.00, "In Stock"),
+                new InventoryItem("003", "Negative quantity", -1, 12.00, "In Stock"),
+                new InventoryItem("004", "Another New Bracelet", 7, 8.00, "In Stock"));
+
+        // Act: Insert all rows in small chunks so more than one batch is executed.
+        List<InsertOutcome> outcomes = dbManager.insertBracelets(rows, 2);
+
+        // Assert: Every row has an outcome and only the valid, unique rows were written.
+        assertEquals(List.of(InsertOutcome.DUPLICATE, InsertOutcome.INSERTED, InsertOutcome.DUPLICATE,
+                InsertOutcome.INVALID, InsertOutcome.INSERTED), outcomes);
+        assertEquals(3, manager.getInventory().size(), "Inventory should contain 3 bracelets.");
+        assertEquals("Existing Bracelet", manager.getBraceletById("001").getDescription(), "Existing row should be untouched.");
+    }
+    @Test
+    @DisplayName("Test: Adjust quantity by a delta, with automatic status changes")
+    void shouldAdjustQuantityAtomically() {
+        // Arrange: Add a bracelet with a small quantity.
+        String id = "001";
+        manager.addBracelet(id, "Test Bracelet", "3", "20.00");
+
+        // Act: Sell all three, then try to sell one more, then restock.
+        String saleResult = manager.adjustQuantity(id, -3);
+        InventoryItem afterSale = manager.getBraceletById(id);
+        String oversellResult = manager.adjustQuantity(id, -1);
+        InventoryItem afterOversell = manager.getBraceletById(id);
+        manager.adjustQuantity(id, 5);
+        InventoryItem afterRestock = manager.getBraceletById(id);
+
+        // Assert: Quantity never goes negative and the status follows the quantity.
+        assertTrue(saleResult.contains("Quantity adjusted"), "Sale should succeed.");
+        assertEquals(0, afterSale.getQuantity());
+        assertEquals("Out of Stock", afterSale.getStatus());
+        assertTrue(oversellResult.contains("Not enough stock"), "Overselling should be rejected.");
+        assertEquals(0, afterOversell.getQuantity(), "Quantity should not go negative.");
+        assertEquals(5, afterRestock.getQuantity());
+        assertEquals("In Stock", afterRestock.getStatus());
+        assertTrue(manager.adjustQuantity("999", 1).contains("not found"), "Unknown ID should be reported.");
+    }
+    @Test
+    @DisplayName("Test: Streaming the inventory reads every row and releases its connection")
+    void shouldStreamInventoryAndReleaseConnection() {
+        // Arrange: Add a few bracelets.
+        manager.addBracelet("001", "Bracelet A", "1", "10.00");
+        manager.addBracelet("002", "Bracelet B", "2", "10.00");
+        manager.addBracelet("003", "Bracelet C", "3", "10.00");
+
+        // Act: Sum the quantities through the stream.
+        int totalQuantity;
+        try (Stream<InventoryItem> rows = manager.streamInventory()) {
+            totalQuantity = rows.mapToInt(InventoryItem::getQuantity).sum();
+        }
+
+        // Assert: All rows were seen and the pooled connection was handed back.
+        assertEquals(6, totalQuantity, "Streamed quantities should add up to 6.");
+        assertEquals(0, dbManager.getPoolStats().active(), "No connection should remain borrowed.");
+    }
+    @Test
+    @DisplayName("Test: Page through the inventory by ID and by quantity")
+    void shouldPageThroughInventory() {
+        // Arrange: Add five bracelets with quantities in a different order than their IDs.
+        manager.addBracelet("001", "Bracelet A", "5", "10.00");
+        manager.addBracelet("002", "Bracelet B", "1", "10.00");
+        manager.addBracelet("003", "Bracelet C", "4", "10.00");
+        manager.addBracelet("004", "Bracelet D", "1", "10.00");
+        manager.addBracelet("005", "Bracelet E", "3", "10.00");
+
+        // Act: Walk both orders two rows at a time.
+        List<String> byId = new ArrayList<>();
+        List<String> byQuantity = new ArrayList<>();
+        for (DatabaseManager.SortKey key : DatabaseManager.SortKey.values()) {
+            List<String> seen = key == DatabaseManager.SortKey.ID ? byId : byQuantity;
+            String afterId = null;
+            List<InventoryItem> page;
+            while (!(page = manager.getInventoryPage(afterId, 2, key)).isEmpty()) {
+                assertTrue(page.size() <= 2, "A page should never exceed the page size.");
+                page.forEach(b -> seen.add(b.getId()));
+                afterId = page.get(page.size() - 1).getId();
+            }
+        }
+
+        // Assert: Every bracelet appears exactly once, in the requested order.
+        assertEquals(List.of("001", "002", "003", "004", "005"), byId);
+        assertEquals(List.of("002", "004", "005", "003", "001"), byQuantity);
+    }
+
+    @Test
+    @DisplayName("Test: Resident manager loads existing rows and writes through to the database")
+    void residentManager_shouldServeFromMemory_andWriteThrough() {
+        // Arrange: One bracelet is already stored before the resident manager starts.
+        manager.addBracelet("001", "Bracelet A", "2", "10.00");
+        InventoryManager resident = new InventoryManager(dbManager, true);
+
+        // Act: Change the stock through the resident manager.
+        resident.addBracelet("002", "Bracelet B", "1", "12.00");
+        resident.adjustQuantity("001", -2);
+        resident.removeBracelet("002");
+
+        // Assert: The preloaded row is visible, and every write reached the database.
+        assertTrue(resident.isResident(), "Manager should report resident mode.");
+        assertEquals(0, resident.getBraceletById("001").getQuantity(), "Memory should hold the adjusted quantity.");
+        assertEquals(resident.getBraceletById("001"), dbManager.selectBraceletById("001"),
+                "Memory and database should agree.");
+        assertTrue(resident.isIdUnique("002"), "Removed ID should be gone from memory.");
+        assertFalse(dbManager.doesIdExist("002"), "Removed ID should be gone from the database.");
+        assertEquals(1, resident.getInventory().size(), "Only one bracelet should remain.");
+    }
+
+    @Test
+    @DisplayName("Test: Lookups by ID are cached, including unknown IDs, and writes invalidate the cache")
+    void lookupCache_shouldServeRepeatedLookups_andSeeWrites() {
+        // Arrange: One stored bracelet, looked up once to warm the cache.
+        manager.addBracelet("001", "Bracelet A", "2", "10.00");
+        manager.getBraceletById("001");
+        assertFalse(dbManager.doesIdExist("002"), "Unknown ID should not exist yet.");
+        long missesBefore = dbManager.getItemCacheStats().misses();
+
+        // Act: Repeat the same lookups, then add the unknown ID.
+        manager.getBraceletById("001");
+        dbManager.doesIdExist("002");
+        long missesAfterRepeats = dbManager.getItemCacheStats().misses();
+        manager.addBracelet("002", "Bracelet B", "1", "12.00");
+
+        // Assert: Repeats were hits, and the insert replaced the cached "does not exist".
+        assertEquals(missesBefore, missesAfterRepeats, "Repeated lookups should not reach the database.");
+        assertTrue(dbManager.doesIdExist("002"), "Newly added ID should be visible through the cache.");
+        assertTrue(dbManager.getItemCacheStats().hitRate() > 0.0, "Hit rate should be reported.");
+    }
+
+    @Test
+    @DisplayName("Test: Resident low stock report matches the database report after edits")
+    void residentLowStockReport_shouldMatchDatabaseReport() {
+        // Arrange: A resident manager over a few bracelets, then some stock changes.
+        InventoryManager resident = new InventoryManager(dbManager, true);
+        resident.addBracelet("001", "Bracelet A", "5", "10.00");
+        resident.addBracelet("002", "Bracelet B", "1", "10.00");
+        resident.addBracelet("003", "Bracelet C", "4", "10.00");
+        resident.updateBracelet("001", "quantity", "2");
+        resident.adjustQuantity("003", 3);
+        resident.removeBracelet("002");
+
+        // Act: Build the report from memory and from SQL.
+        List<InventoryItem> fromIndex = resident.generateLowStockReport("5");
+        List<InventoryItem> fromDatabase = manager.generateLowStockReport("5");
+
+        // Assert: Same rows, same order.
+        assertEquals(fromDatabase, fromIndex, "In-memory report should match the SQL report.");
+        assertEquals(1, fromIndex.size(), "Only bracelet 001 should be below 5.");
+    }
+
+    @Test
+    @DisplayName("Test: Low stock listeners fire once per threshold crossing")
+    void lowStockListener_shouldFireOnlyOnCrossings() {
+        // Arrange: A global threshold of 3, and a reorder point of 8 for bracelet 002 only.
+        manager.addBracelet("001", "Bracelet A", "5", "10.00");
+        manager.addBracelet("002", "Bracelet B", "10", "10.00");
+        List<LowStockEvent> globalEvents = new ArrayList<>();
+        List<LowStockEvent> reorderEvents = new ArrayList<>();
+        manager.addLowStockListener(3, globalEvents::add);
+        manager.addLowStockListener(reorderEvents::add);
+        manager.setReorderPoint("002", 8);
+
+        // Act: Sell bracelet 001 down past 3 in steps, restock it, and sell some of 002.
+        manager.adjustQuantity("001", -1); // 4: still above
+        manager.adjustQuantity("001", -2); // 2: crosses below 3
+        manager.adjustQuantity("001", -1); // 1: already below
+        manager.updateBracelet("001", "quantity", "6"); // 6: back above
+        manager.adjustQuantity("002", -3); // 7: crosses 002's reorder point
+
+        // Assert: Exactly the crossings were reported.
+        assertEquals(2, globalEvents.size(), "Global listener should see the drop and the restock.");
+        assertTrue(globalEvents.get(0).isLow(), "First event should be the drop below 3.");
+        assertEquals(4, globalEvents.get(0).previousQuantity(), "Drop should report the previous quantity.");
+        assertFalse(globalEvents.get(1).isLow(), "Second event should be the restock.");
+        assertEquals(1, reorderEvents.size(), "Reorder point listener should only see bracelet 002.");
+        assertEquals("002", reorderEvents.get(0).item().getId());
+    }
+
+    @Test
+    @DisplayName("Test: A slow low stock listener does not hold up other writers")
+    void lowStockListener_shouldNotBlockWriters_whileRunning() throws Exception {
+        // Arrange: A listener that stays busy until released.
+        manager.addBracelet("001", "Bracelet A", "5", "10.00");
+        manager.addBracelet("002", "Bracelet B", "10", "10.00");
+        CountDownLatch listenerRunning = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        manager.addLowStockListener(3, event -> {
+            listenerRunning.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        CompletableFuture<String> crossing = CompletableFuture.supplyAsync(() -> manager.adjustQuantity("001", -3));
+        assertTrue(listenerRunning.await(5, TimeUnit.SECONDS), "The sale should cross the threshold.");
+
+        // Act: Another sale while the listener is still busy.
+        String other = CompletableFuture.supplyAsync(() -> manager.adjustQuantity("002", -1)).get(5, TimeUnit.SECONDS);
+        release.countDown();
+
+        // Assert: The second sale went through without waiting for the listener.
+        assertTrue(other.startsWith("Quantity adjusted"), other);
+        assertTrue(crossing.get(5, TimeUnit.SECONDS).startsWith("Quantity adjusted"));
+        assertEquals(9, manager.getBraceletById("002").getQuantity());
+    }
+
+    @Test
+    @DisplayName("Test: Patch several fields of a bracelet in one update")
+    void updateWithPatch_shouldApplyAllFieldsAtOnce() {
+        // Arrange: Two bracelets in stock.
+        manager.addBracelet("001", "Bracelet A", "5", "10.00");
+        manager.addBracelet("002", "Bracelet B", "5", "10.00");
+
+        // Act: Sell out 001 and reprice it; restock 002 while forcing its status.
+        UpdateResult result = manager.updateBracelet("001", new BraceletPatch().withQuantity("0").withPrice("12.50"));
+        manager.updateBracelet("002", new BraceletPatch().withQuantity("9").withStatus("Out of Stock"));
+        UpdateResult invalid = manager.updateBracelet("002", new BraceletPatch().withPrice("abc"));
+
+        // Assert: Quantity drives the status unless the status is given explicitly.
+        InventoryItem first = manager.getBraceletById("001");
+        assertEquals(0, first.getQuantity());
+        assertEquals(12.50, first.getPrice());
+        assertEquals("Out of Stock", first.getStatus(), "Quantity 0 should mark the bracelet out of stock.");
+        assertTrue(result.message().contains("Updated bracelet"), "Success message should show the updated bracelet.");
+        assertEquals(5, result.previous().getQuantity(), "The result should carry the row before the change.");
+        assertEquals(0, result.updated().getQuantity(), "The result should carry the row as stored.");
+        assertEquals(12.50, result.updated().getPrice());
+        assertEquals("Out of Stock", manager.getBraceletById("002").getStatus(), "Explicit status should win.");
+        assertTrue(invalid.message().startsWith("Error"), "Invalid price should be rejected.");
+        assertFalse(invalid.isUpdated(), "A rejected patch should not return a row.");
+        assertTrue(manager.updateBracelet("999", new BraceletPatch().withPrice("1")).message().contains("not found"));
+    }
+
+    @Test
+    @DisplayName("Test: Async operations compose and respect the concurrency limit")
+    void asyncManager_shouldCompleteAllOperations() {
+        // Arrange: An async front end allowing two operations at once, over a manager that records
+        // how many sales are running at the same moment.
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        InventoryManager counting = new InventoryManager(dbManager) {
+            @Override
+            public String adjustQuantity(String itemId, int delta) {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    return super.adjustQuantity(itemId, delta);
+                } finally {
+                    running.decrementAndGet();
+                }
+            }
+        };
+        try (AsyncInventoryManager async = new AsyncInventoryManager(counting, 2)) {
+            async.addBraceletAsync("001", "Bracelet A", "20", "10.00").join();
+
+            // Act: Fire ten single-item sales without waiting for each one.
+            List<CompletableFuture<String>> sales = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                sales.add(async.adjustQuantityAsync("001", -1));
+            }
+            sales.forEach(CompletableFuture::join);
+            List<InventoryItem> lowStock = async.generateLowStockReportAsync("11").join();
+
+            // Assert: Every sale was applied, and nothing is left running or queued.
+            assertEquals(10, manager.getBraceletById("001").getQuantity(), "All ten sales should be applied.");
+            assertEquals(1, lowStock.size(), "Bracelet should now be below 11.");
+            assertTrue(peak.get() <= 2, "No more than two operations should run at once.");
+            assertEquals(0, async.getPendingCount(), "Queue should be empty once all futures completed.");
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Write-behind skips a queued sale the stored stock no longer allows")
+    void writeBehind_shouldSkipChange_whenStockWasSoldElsewhere() {
+        // Arrange: A resident write-behind manager sells 3 in memory while another terminal sells 8 of the 10.
+        manager.addBracelet("001", "Bracelet A", "10", "10.00");
+        InventoryManager resident = new InventoryManager(dbManager, true);
+        resident.enableWriteBehind(60_000, 1_000, 60_000);
+        resident.adjustQuantity("001", -3);
+        dbManager.adjustQuantity("001", -8);
+
+        // Act: Save the queued sale.
+        boolean flushed = resident.flush();
+
+        // Assert: The sale was skipped rather than driving the stock negative, and memory was reloaded.
+        assertTrue(flushed, "The transaction itself should commit.");
+        InventoryItem stored = dbManager.selectBraceletById("001");
+        assertEquals(2, stored.getQuantity(), "Stored quantity should never go below zero.");
+        assertEquals("In Stock", stored.getStatus());
+        assertEquals(stored, resident.getBraceletById("001"), "Memory should follow the database after a skip.");
+        resident.close();
+    }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Test: Write-behind coalesces edits in memory and saves them on flush")
+    void writeBehind_shouldCoalesceEditsUntilFlushed() {
+        // Arrange: A resident manager with write-behind that will not flush on its own during the test.
+        manager.addBracelet("001", "Bracelet A", "10", "10.00");
+        InventoryManager resident = new InventoryManager(dbManager, true);
+        resident.enableWriteBehind(60_000, 1_000, 60_000);
+
+        // Act: Several quick edits of the same bracelet.
+        resident.adjustQuantity("001", -3);
+        resident.adjustQuantity("001", -2);
+        resident.updateBracelet("001", "price", "12.00");
+        int depthBeforeFlush = resident.getWriteBehindQueueDepth();
+        InventoryItem storedBeforeFlush = dbManager.selectBraceletById("001");
+        resident.close(); // Flushes on shutdown
+
+        // Assert: Memory changed at once, the database only after the flush, with all edits combined.
+        assertEquals(3, depthBeforeFlush, "Three edits should be queued.");
+        assertEquals(10, storedBeforeFlush.getQuantity(), "Database should not change before the flush.");
+        InventoryItem stored = dbManager.selectBraceletById("001");
+        assertEquals(5, stored.getQuantity(), "Summed quantity changes should be saved.");
+        assertEquals(12.00, stored.getPrice(), "Latest price should be saved.");
+        assertEquals(resident.getBraceletById("001"), stored, "Memory and database should agree after the flush.");
+        assertEquals(0, resident.getWriteBehindQueueDepth(), "Queue should be empty after close.");
+    }
+
+    @Test
+    @DisplayName("Test: Group commit gives every concurrent writer its own result")
+    void groupCommit_shouldCompleteConcurrentWritersIndividually() throws Exception {
+        // Arrange: A second manager on the same file with group commit enabled.
+        try (DatabaseManager grouped = new DatabaseManager(tempDbFile.toString(),
+                new DatabaseConfig().setGroupCommitBatchSize(16))) {
+            grouped.insertBraceletIfAbsent(new InventoryItem("001", "Bracelet A", 50, 10.00, "In Stock"));
+
+            // Act: Forty sales from eight threads, plus a duplicate insert inside the same batches.
+            List<Thread> threads = new ArrayList<>();
+            List<InsertOutcome> duplicateOutcome = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                threads.add(new Thread(() -> {
+                    for (int i = 0; i < 5; i++) {
+                        grouped.adjustQuantity("001", -1);
+                    }
+                }));
+            }
+            threads.add(new Thread(() -> duplicateOutcome.add(
+                    grouped.insertBraceletIfAbsent(new InventoryItem("001", "Copy", 1, 1.00, "In Stock")))));
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            // Assert: Every sale committed once, and the duplicate only affected its own caller.
+            assertEquals(10, grouped.selectBraceletById("001").getQuantity(), "All forty sales should be applied.");
+            assertEquals(List.of(InsertOutcome.DUPLICATE), duplicateOutcome);
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Import a CSV catalog and report bad rows with line numbers")
+    void importCsv_shouldAddValidRowsAndReportRejects() throws IOException {
+        // Arrange: A file with a header, good rows, bad rows and an ID that already exists.
+        manager.addBracelet("003", "Existing", "1", "1.00");
+        Path csv = tempDir.resolve("catalog.csv");
+        Files.writeString(csv, String.join("\n",
+                "id,description,quantity,price,status",
+                "001,\"Beaded, blue\",5,12.50",
+                "002,Charm,0,8",
+                "003,Duplicate,2,3.00",
+                "004,Broken,lots,3.00",
+                "005,,1,1.00",
+                "",
+                "006,Shell,3,4.75,Out of Stock"));
+
+        // Act: Import the file.
+        ImportResult result = manager.importCsv(csv);
+
+        // Assert: Three rows added, three rejected with the right line numbers.
+        assertEquals(6, result.rowsRead(), "Blank lines and the header should not count as rows.");
+        assertEquals(3, result.inserted());
+        assertEquals(1, result.duplicates());
+        assertEquals(3, result.rejected());
+        assertEquals(List.of(5L, 6L, 4L), result.rejects().stream().map(ImportReject::lineNumber).toList(),
+                "Parse rejects come before the chunk's database rejects.");
+        assertEquals("Beaded, blue", manager.getBraceletById("001").getDescription(), "Quoted comma should be kept.");
+        assertEquals("Out of Stock", manager.getBraceletById("002").getStatus(), "Quantity 0 should be out of stock.");
+        assertEquals(4.75, manager.getBraceletById("006").getPrice());
+    }
+
+    @Test
+    @DisplayName("Test: A first row whose ID is \"id\" is imported, not skipped as a header")
+    void importCsv_shouldImportFirstRow_whenItOnlyLooksLikeAHeader() throws IOException {
+        // Arrange: A file without a header whose first bracelet has the ID "id".
+        Path csv = tempDir.resolve("no-header.csv");
+        Files.writeString(csv, String.join("\n",
+                "id,Plain band,3,5.00",
+                "002,Charm,1,8.00"));
+
+        // Act: Import the file.
+        ImportResult result = manager.importCsv(csv);
+
+        // Assert: Both lines were read as bracelets.
+        assertEquals(2, result.rowsRead(), "The first line is data, not a header.");
+        assertEquals(2, result.inserted());
+        assertEquals(3, manager.getBraceletById("id").getQuantity());
+    }
+
+    @Test
+    @DisplayName("Test: Export writes every bracelet as CSV or JSON Lines, picked by the file name")
+    void exportInventory_shouldWriteEveryRowInTheFormatOfTheFileName() throws IOException {
+        // Arrange: Two bracelets, one with a comma and quotes in its description.
+        manager.addBracelet("001", "Beaded, \"blue\"", "5", "12.50");
+        manager.addBracelet("002", "Charm", "0", "8.00");
+
+        // Act: Export to gzip-compressed CSV and to plain JSON Lines.
+        ExportResult csv = manager.exportInventory(tempDir.resolve("export.csv.gz"));
+        ExportResult jsonl = manager.exportInventory(tempDir.resolve("export.jsonl"));
+
+        // Assert: Both files hold both rows; the CSV has a header and quotes the description.
+        assertEquals(2, csv.rows());
+        assertEquals(2, jsonl.rows());
+        List<String> csvLines;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(csv.file())), StandardCharsets.UTF_8))) {
+            csvLines = reader.lines().toList();
+        }
+        assertEquals("id,description,quantity,price,status", csvLines.get(0));
+        assertTrue(csvLines.contains("001,\"Beaded, \"\"blue\"\"\",5,12.5,In Stock"), "Quotes should be doubled.");
+        assertTrue(Files.readAllLines(jsonl.file()).contains(
+                "{\"id\":\"002\",\"description\":\"Charm\",\"quantity\":0,\"price\":8.0,\"status\":\"Out of Stock\"}"));
+        assertFalse(Files.exists(tempDir.resolve("export.jsonl.part")), "The temporary file should be moved into place.");
+    }
+
+    @Test
+    @DisplayName("Test: A CSV export with a multi-line description imports again")
+    void exportInventory_shouldWriteCsvTheImporterReads_whenDescriptionHasLineBreaks() throws IOException {
+        // Arrange: A bracelet whose description spans two lines.
+        manager.addBracelet("001", "Beaded\r\nblue, large", "5", "12.50");
+        Path file = tempDir.resolve("export.csv");
+        manager.exportInventory(file);
+
+        // Act: Import the export into an empty database.
+        try (DatabaseManager copyDb = new DatabaseManager(tempDir.resolve("copy.db").toString())) {
+            InventoryManager copy = new InventoryManager(copyDb);
+            ImportResult result = copy.importCsv(file);
+
+            // Assert: One row, read back with the line break as a space.
+            assertEquals(1, result.inserted());
+            assertEquals(0, result.rejected(), "The export should not split the row over two lines.");
+            assertEquals("Beaded blue, large", copy.getBraceletById("001").getDescription());
+        }
+    }
+
+    @Test
+    @DisplayName("Test: A failed database read leaves the previous export in place")
+    void exportInventory_shouldKeepPreviousFile_whenReadFails() throws IOException {
+        // Arrange: A previous export, and an exporter whose database connections are closed.
+        Path file = tempDir.resolve("export.csv");
+        Files.writeString(file, "previous export");
+        DatabaseManager closed = new DatabaseManager(tempDbFile.toString());
+        closed.close();
+
+        // Act & Assert: The export fails instead of writing an empty file.
+        assertThrows(IOException.class, () -> InventoryExporter.forFile(closed, file).exportTo(file));
+        assertEquals("previous export", Files.readString(file));
+        assertFalse(Files.exists(tempDir.resolve("export.csv.part")), "The partial file should be deleted.");
+    }
+
+    @Test
+    @DisplayName("Test: Search matches word prefixes in descriptions and follows edits")
+    void searchBracelets_shouldMatchWordPrefixesAndFollowEdits() {
+        // Arrange: Three bracelets sharing some words.
+        manager.addBracelet("001", "Blue beaded anklet", "5", "12.50");
+        manager.addBracelet("002", "Blue charm bracelet", "3", "8.00");
+        manager.addBracelet("003", "Red beaded bracelet", "1", "9.00");
+
+        // Act & Assert: Prefixes match, and every word must match.
+        assertEquals(List.of("001"), manager.searchBracelets("blu bead", 10).stream().map(InventoryItem::getId).toList());
+        assertEquals(2, manager.searchBracelets("BRACE", 10).size(), "Search should ignore case.");
+        assertEquals(1, manager.searchBracelets("blue", 1).size(), "The limit should be applied.");
+        assertTrue(manager.searchBracelets("  - ", 10).isEmpty(), "Punctuation alone is not a query.");
+
+        // Act: Edit and remove descriptions.
+        manager.updateBracelet("003", "description", "Green shell bracelet");
+        manager.removeBracelet("002");
+
+        // Assert: The index follows the table.
+        assertTrue(manager.searchBracelets("red", 10).isEmpty());
+        assertEquals(List.of("003"), manager.searchBracelets("bracelet", 10).stream().map(InventoryItem::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Test: Search still finds the right bracelets after a VACUUM")
+    void searchBracelets_shouldMatchRightRows_afterVacuum() throws SQLException {
+        // Arrange: Bracelets with gaps left by removals, then a VACUUM from another connection.
+        for (int i = 1; i <= 6; i++) {
+            manager.addBracelet("00" + i, (i % 2 == 0 ? "Blue" : "Red") + " bracelet " + i, "1", "5.00");
+        }
+        manager.removeBracelet("001");
+        manager.removeBracelet("002");
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + tempDbFile);
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("VACUUM");
+        }
+
+        // Act: Search after the table was rewritten.
+        List<String> blue = manager.searchBracelets("blue", 10).stream().map(InventoryItem::getId).sorted().toList();
+
+        // Assert: The index still points at the right rows.
+        assertEquals(List.of("004", "006"), blue);
+    }
+
+    @Test
+    @DisplayName("Test: A table from before the search key is migrated and searchable")
+    void createTable_shouldMigrateTableWithoutRowKey() throws SQLException {
+        // Arrange: A database file with the original bracelets schema and a row in it.
+        Path oldDb = tempDir.resolve("old.db");
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + oldDb);
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE bracelets (id TEXT PRIMARY KEY, description TEXT NOT NULL, " +
+                    "quantity INTEGER NOT NULL, price REAL NOT NULL, status TEXT NOT NULL)");
+            stmt.execute("INSERT INTO bracelets VALUES ('001', 'Blue beaded anklet', 5, 12.5, 'In Stock')");
+        }
+
+        // Act: Open it with the current code.
+        try (DatabaseManager migrated = new DatabaseManager(oldDb.toString())) {
+            InventoryManager migratedManager = new InventoryManager(migrated);
+
+            // Assert: The row survived and the search index was built for it.
+            assertEquals(5, migratedManager.getBraceletById("001").getQuantity());
+            assertEquals(1, migratedManager.searchBracelets("anklet", 10).size());
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Jump to a page by row position and count the inventory")
+    void shouldReadPageAtOffset_andCountInventory() {
+        // Arrange: Add five bracelets with quantities in a different order than their IDs.
+        manager.addBracelet("001", "Bracelet A", "5", "10.00");
+        manager.addBracelet("002", "Bracelet B", "1", "10.00");
+        manager.addBracelet("003", "Bracelet C", "4", "10.00");
+        manager.addBracelet("004", "Bracelet D", "1", "10.00");
+        manager.addBracelet("005", "Bracelet E", "3", "10.00");
+
+        // Act: Read the page starting at the third row in both orders, and past the end.
+        List<String> byId = manager.getInventoryPageAt(2, 2, DatabaseManager.SortKey.ID).stream().map(InventoryItem::getId).toList();
+        List<String> byQuantity = manager.getInventoryPageAt(2, 2, DatabaseManager.SortKey.QUANTITY).stream().map(InventoryItem::getId).toList();
+
+        // Assert: The pages match what keyset paging returns at the same position.
+        assertEquals(List.of("003", "004"), byId);
+        assertEquals(List.of("005", "003"), byQuantity);
+        assertTrue(manager.getInventoryPageAt(5, 2, DatabaseManager.SortKey.ID).isEmpty());
+        assertEquals(5, manager.getInventorySize());
+        manager.removeBracelet("001");
+        assertEquals(4, manager.getInventorySize());
+    }
+}